@@ -18,11 +18,22 @@ CREATE TABLE IF NOT EXISTS inventory (
     quantity INT NOT NULL DEFAULT 0,
     reorder_threshold INT NOT NULL DEFAULT 0,
     shelf_life_days INT NOT NULL DEFAULT 0,
+    -- quantity/threshold ratio in percent, lower = more urgent (0 threshold = urgent)
+    restock_priority INT GENERATED ALWAYS AS (
+        CASE WHEN reorder_threshold = 0 THEN 0 ELSE quantity * 100 DIV reorder_threshold END
+    ) STORED,
+    -- when the stock on the shelf was received; expiry counts from here
+    received_at DATE NOT NULL DEFAULT (CURRENT_DATE),
+    expires_on DATE GENERATED ALWAYS AS (DATE_ADD(received_at, INTERVAL shelf_life_days DAY)) STORED,
+    -- bumped by every write, for compare-and-set updates
+    version BIGINT NOT NULL DEFAULT 0,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_name (name),
     INDEX idx_quantity (quantity),
-    INDEX idx_reorder (reorder_threshold)
+    INDEX idx_reorder (reorder_threshold),
+    INDEX idx_restock_priority (restock_priority, sku),
+    INDEX idx_expires_on (expires_on, sku)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ====================================
@@ -33,6 +44,7 @@ CREATE TABLE IF NOT EXISTS transaction_log (
     id INT AUTO_INCREMENT PRIMARY KEY,
     date VARCHAR(20) NOT NULL,
     time VARCHAR(20) NOT NULL,
+    event_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     action VARCHAR(50) NOT NULL,
     sku VARCHAR(50),
     quantity INT,
@@ -41,7 +53,9 @@ CREATE TABLE IF NOT EXISTS transaction_log (
     INDEX idx_date (date),
     INDEX idx_action (action),
     INDEX idx_sku (sku),
-    INDEX idx_date_action (date, action)
+    INDEX idx_date_action (date, action),
+    INDEX idx_event_time (event_time),
+    INDEX idx_sku_event_time (sku, event_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- ====================================
@@ -59,10 +73,10 @@ INSERT INTO inventory (sku, name, quantity, reorder_threshold, shelf_life_days)
 ('SKU005', 'USB Cable', 500, 100, 365);
 
 -- Insert sample transaction logs
-INSERT INTO transaction_log (date, time, action, sku, quantity, item_name) VALUES
-('01-11-2025', '10:30:00', 'ADDED', 'SKU001', 50, 'Laptop'),
-('01-11-2025', '11:15:00', 'SOLD', 'SKU001', 5, 'Laptop'),
-('01-11-2025', '14:20:00', 'RESTOCKED', 'SKU002', 100, 'Mouse');
+INSERT INTO transaction_log (date, time, event_time, action, sku, quantity, item_name) VALUES
+('01-11-2025', '10:30:00', '2025-11-01 10:30:00', 'ADDED', 'SKU001', 50, 'Laptop'),
+('01-11-2025', '11:15:00', '2025-11-01 11:15:00', 'SOLD', 'SKU001', 5, 'Laptop'),
+('01-11-2025', '14:20:00', '2025-11-01 14:20:00', 'RESTOCKED', 'SKU002', 100, 'Mouse');
 */
 
 -- ====================================
@@ -82,7 +96,11 @@ INSERT INTO transaction_log (date, time, action, sku, quantity, item_name) VALUE
 -- SELECT * FROM transaction_log WHERE action = 'SOLD' ORDER BY id DESC;
 
 -- View transactions by date
--- SELECT * FROM transaction_log WHERE date = '01-11-2025' ORDER BY time;
+-- SELECT * FROM transaction_log WHERE event_time >= '2025-11-01' AND event_time < '2025-11-02' ORDER BY event_time;
+
+-- View one SKU's transactions for a month, newest first (uses idx_sku_event_time)
+-- SELECT * FROM transaction_log WHERE sku = 'SKU001'
+--   AND event_time >= '2025-11-01' AND event_time < '2025-12-01' ORDER BY event_time DESC, id DESC LIMIT 50;
 
 -- Count items by action
 -- SELECT action, COUNT(*) as count FROM transaction_log GROUP BY action;
@@ -97,6 +115,12 @@ INSERT INTO transaction_log (date, time, action, sku, quantity, item_name) VALUE
 -- WHERE quantity < reorder_threshold
 -- ORDER BY shortage DESC;
 
+-- Top 10 restock suggestions (served from idx_restock_priority)
+-- SELECT * FROM inventory ORDER BY restock_priority, sku LIMIT 10;
+
+-- Items expiring in the next 7 days (served from idx_expires_on)
+-- SELECT * FROM inventory WHERE expires_on <= CURRENT_DATE + INTERVAL 7 DAY ORDER BY expires_on;
+
 -- ====================================
 -- Create User (Optional)
 -- Replace 'your_password' with a secure password
@@ -0,0 +1,24 @@
+package com.Daryappa.Inventory.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Entry point of target/benchmarks.jar. Accepts the usual JMH command line
+// (e.g. "HashTable -p size=1000,100000 -t 4") and writes JSON results to
+// jmh-result.json unless -rf/-rff say otherwise.
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.result("jmh-result.json");
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.Daryappa.Inventory.bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+// Deterministic synthetic catalogs shared by the benchmarks
+final class Catalogs {
+    private Catalogs() {
+    }
+
+    static String sku(int i) {
+        return "SKU" + i;
+    }
+
+    static String[] skus(int size) {
+        String[] skus = new String[size];
+        for (int i = 0; i < size; i++) {
+            skus[i] = sku(i);
+        }
+        return skus;
+    }
+
+    // Random SKUs from the catalog, used as lookup probes so access is not sequential
+    static String[] probes(String[] skus, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] probes = new String[count];
+        for (int i = 0; i < count; i++) {
+            probes[i] = skus[random.nextInt(skus.length)];
+        }
+        return probes;
+    }
+
+    // About 1% of items start below their reorder threshold; stock is large enough
+    // that sell benchmarks never run out
+    static List<InventoryRecord> records(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LocalDate today = LocalDate.now();
+        List<InventoryRecord> records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boolean low = random.nextInt(100) == 0;
+            int threshold = 10 + random.nextInt(90);
+            int quantity = low ? random.nextInt(threshold) : 1_000_000_000;
+            records.add(new InventoryRecord(sku(i), "item-" + i, quantity, threshold,
+                    1 + random.nextInt(720), today.minusDays(random.nextInt(30))));
+        }
+        return records;
+    }
+}
@@ -0,0 +1,84 @@
+package com.Daryappa.Inventory.bench;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.Daryappa.Inventory.ds.ConcurrentHashTable;
+
+// ds.ConcurrentHashTable against java.util.concurrent.ConcurrentHashMap with every core
+// reading or writing random keys
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class ConcurrentHashTableBenchmark {
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    String[] probes;
+    ConcurrentHashTable<String, Integer> table;
+    ConcurrentHashMap<String, Integer> map;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = (int) Thread.currentThread().threadId() * 7919;
+
+        int advance() {
+            next = (next + 1) & (PROBES - 1);
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] skus = Catalogs.skus(size);
+        probes = Catalogs.probes(skus, PROBES, 7);
+        table = new ConcurrentHashTable<>(size);
+        map = new ConcurrentHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            table.put(skus[i], i);
+            map.put(skus[i], i);
+        }
+    }
+
+    @Benchmark
+    public Integer tableGet(Cursor cursor) {
+        return table.get(probes[cursor.advance()]);
+    }
+
+    @Benchmark
+    public Integer mapGet(Cursor cursor) {
+        return map.get(probes[cursor.advance()]);
+    }
+
+    @Benchmark
+    public void tablePut(Cursor cursor) {
+        int i = cursor.advance();
+        table.put(probes[i], i);
+    }
+
+    @Benchmark
+    public void mapPut(Cursor cursor) {
+        int i = cursor.advance();
+        map.put(probes[i], i);
+    }
+}
@@ -0,0 +1,127 @@
+package com.Daryappa.Inventory.bench;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.Daryappa.Inventory.ds.HashTable;
+
+// ds.HashTable against java.util.HashMap: lookups (single and multi-threaded, read-only)
+// and single-threaded put/remove on a table holding size entries
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HashTableBenchmark {
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    String[] skus;
+    String[] probes;
+    String[] missing;
+    HashTable<String, Integer> table;
+    HashMap<String, Integer> map;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        int advance() {
+            next = (next + 1) & (PROBES - 1);
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        skus = Catalogs.skus(size);
+        probes = Catalogs.probes(skus, PROBES, 42);
+        missing = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            missing[i] = "MISSING" + i;
+        }
+        table = new HashTable<>();
+        map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            table.put(skus[i], i);
+            map.put(skus[i], i);
+        }
+    }
+
+    @Benchmark
+    public Integer hashTableGet(Cursor cursor) {
+        return table.get(probes[cursor.advance()]);
+    }
+
+    @Benchmark
+    public Integer hashMapGet(Cursor cursor) {
+        return map.get(probes[cursor.advance()]);
+    }
+
+    @Benchmark
+    public boolean hashTableGetMissing(Cursor cursor) {
+        return table.containsKey(missing[cursor.advance()]);
+    }
+
+    @Benchmark
+    public boolean hashMapGetMissing(Cursor cursor) {
+        return map.containsKey(missing[cursor.advance()]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer hashTableGetMultiThreaded(Cursor cursor) {
+        return table.get(probes[cursor.advance()]);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Integer hashMapGetMultiThreaded(Cursor cursor) {
+        return map.get(probes[cursor.advance()]);
+    }
+
+    // overwrite of an existing key, size stays constant
+    @Benchmark
+    public void hashTablePut(Cursor cursor) {
+        int i = cursor.advance();
+        table.put(probes[i], i);
+    }
+
+    @Benchmark
+    public void hashMapPut(Cursor cursor) {
+        int i = cursor.advance();
+        map.put(probes[i], i);
+    }
+
+    // remove then re-insert, exercises deletion without shrinking the table
+    @Benchmark
+    public void hashTableRemovePut(Cursor cursor) {
+        int i = cursor.advance();
+        table.remove(probes[i]);
+        table.put(probes[i], i);
+    }
+
+    @Benchmark
+    public void hashMapRemovePut(Cursor cursor) {
+        int i = cursor.advance();
+        map.remove(probes[i]);
+        map.put(probes[i], i);
+    }
+}
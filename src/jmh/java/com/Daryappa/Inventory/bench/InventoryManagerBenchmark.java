@@ -0,0 +1,108 @@
+package com.Daryappa.Inventory.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.model.InventoryRecord;
+import com.Daryappa.Inventory.service.InventoryManager;
+
+// In-memory InventoryManager operations on a catalog of size SKUs.
+// sell/receive run single-threaded and on every core; scans and suggestions single-threaded.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InventoryManagerBenchmark {
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    InventoryManager manager;
+    String[] probes;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = (int) Thread.currentThread().threadId() * 7919;
+
+        int advance() {
+            next = (next + 1) & (PROBES - 1);
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<InventoryRecord> records = Catalogs.records(size, 19);
+        HashTable<String, InventoryRecord> table = new HashTable<>(size);
+        List<String> stocked = new ArrayList<>(size);
+        for (InventoryRecord record : records) {
+            table.put(record.getSku(), record);
+            if (record.getQuantity() >= record.getReorderThreshold()) {
+                stocked.add(record.getSku());
+            }
+        }
+        manager = new InventoryManager();
+        manager.setInventory(table);
+        // only well-stocked SKUs, so sells never hit the insufficient-stock path
+        probes = Catalogs.probes(stocked.toArray(new String[0]), PROBES, 23);
+    }
+
+    @Benchmark
+    public void sell(Cursor cursor) {
+        manager.sellItem(probes[cursor.advance()], 1);
+    }
+
+    @Benchmark
+    public void receive(Cursor cursor) {
+        manager.receiveStock(probes[cursor.advance()], 1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void sellMultiThreaded(Cursor cursor) {
+        manager.sellItem(probes[cursor.advance()], 1);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void receiveMultiThreaded(Cursor cursor) {
+        manager.receiveStock(probes[cursor.advance()], 1);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<InventoryRecord> listLowStock() {
+        return manager.listLowStock();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<InventoryRecord> suggestRestocks() {
+        return manager.suggestRestocks(10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<InventoryRecord> suggestExpiringSoon() {
+        return manager.suggestExpiringSoon(10);
+    }
+}
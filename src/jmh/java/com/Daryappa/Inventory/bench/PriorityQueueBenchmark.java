@@ -0,0 +1,96 @@
+package com.Daryappa.Inventory.bench;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.Daryappa.Inventory.ds.PriorityQueue;
+import com.Daryappa.Inventory.model.InventoryRecord;
+import com.Daryappa.Inventory.service.RestockIndex;
+
+// Top-K restock selection over size records: ds.PriorityQueue heapify + poll,
+// java.util.PriorityQueue, and priority updates
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriorityQueueBenchmark {
+    private static final Comparator<InventoryRecord> BY_PRIORITY = Comparator.comparingInt(RestockIndex::priorityOf);
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int size;
+
+    @Param({"10"})
+    int k;
+
+    List<InventoryRecord> records;
+    PriorityQueue<InventoryRecord> live;
+    int[] updatePriorities;
+    int updateCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        records = Catalogs.records(size, 11);
+        live = new PriorityQueue<>(size);
+        live.heapify(records, RestockIndex::priorityOf);
+        SplittableRandom random = new SplittableRandom(3);
+        updatePriorities = new int[1 << 16];
+        for (int i = 0; i < updatePriorities.length; i++) {
+            updatePriorities[i] = random.nextInt(10_000);
+        }
+    }
+
+    @Benchmark
+    public List<InventoryRecord> heapifyPoll() {
+        PriorityQueue<InventoryRecord> pq = new PriorityQueue<>(records.size());
+        pq.heapify(records, RestockIndex::priorityOf);
+        List<InventoryRecord> result = new ArrayList<>(k);
+        for (int i = 0; i < k && !pq.isEmpty(); i++) {
+            result.add(pq.poll());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<InventoryRecord> javaUtilHeapifyPoll() {
+        java.util.PriorityQueue<InventoryRecord> pq = new java.util.PriorityQueue<>(records.size(), BY_PRIORITY);
+        pq.addAll(records);
+        List<InventoryRecord> result = new ArrayList<>(k);
+        for (int i = 0; i < k && !pq.isEmpty(); i++) {
+            result.add(pq.poll());
+        }
+        return result;
+    }
+
+    // top-K read of a maintained heap, what suggestRestocks pays per call
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public List<InventoryRecord> peekTopLive() {
+        return live.peekTop(k);
+    }
+
+    // decrease/increase-key of one item, what every sell or receive pays to keep the ranking live
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean updatePriority() {
+        int i = updateCursor = (updateCursor + 1) & (updatePriorities.length - 1);
+        return live.update(records.get((int) ((long) i * 2654435761L % size)), updatePriorities[i]);
+    }
+}
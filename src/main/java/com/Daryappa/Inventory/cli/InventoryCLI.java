@@ -1,19 +1,22 @@
 package com.Daryappa.Inventory.cli;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
-import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.ds.IHashTable;
 import com.Daryappa.Inventory.model.InsufficientStockException;
 import com.Daryappa.Inventory.model.InventoryRecord;
 import com.Daryappa.Inventory.model.ItemNotFoundException;
 import com.Daryappa.Inventory.service.InventoryManager;
-import com.Daryappa.Inventory.utils.FileHandler;
+import com.Daryappa.Inventory.service.InventoryStore;
 import com.Daryappa.Inventory.utils.LogReader;
+import com.Daryappa.Inventory.utils.OrderParser;
 import com.Daryappa.Inventory.utils.TransactionLogger;
 
 public class InventoryCLI {
@@ -21,14 +24,20 @@ public class InventoryCLI {
     public static void main(String[] args) {
 
         Scanner scanner = new Scanner(System.in);
-        InventoryManager manager = new InventoryManager();
-        HashTable<String, InventoryRecord> loadedInventory = FileHandler.loadInventory("inventory.csv");
-        manager.setInventory(loadedInventory);
+        // loads the last snapshot and replays the write-ahead log written since it was saved
+        InventoryStore store = new InventoryStore("inventory.bin", "inventory.csv");
+        InventoryManager manager;
+        try {
+            manager = store.open();
+        } catch (IOException e) {
+            System.out.println("❌ Error: could not recover the inventory: " + e.getMessage());
+            return;
+        }
 
         System.out.println("📦 Welcome to Inventory Management System");
 
         while (true) {
-            System.out.println("\nChoose an option: add | sell | receive | view all | list low stock | suggest restock | suggest expiry | export action | export date | exit");
+            System.out.println("\nChoose an option: add | sell | receive | sell order | receive order | view all | list low stock | suggest restock | suggest expiry | list expiring | export action | export date | exit");
             System.out.print(">> ");
             String command = scanner.nextLine().trim().toLowerCase();
 
@@ -100,17 +109,49 @@ public class InventoryCLI {
                     }
                     break;
 
+                case "sell order":
+                    try {
+                        System.out.print("Enter order lines (SKU:QTY, SKU:QTY, ...): ");
+                        Map<String, Integer> order = OrderParser.parse(scanner.nextLine());
+
+                        try {
+                            manager.sellItems(order);
+                            TransactionLogger.logAll("SOLD", order);
+                            System.out.println("✅ Order of " + order.size() + " items sold successfully.");
+                        } catch (InsufficientStockException | ItemNotFoundException e) {
+                            System.out.println("❌ Error: " + e.getMessage() + ", nothing was sold.");
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("❌ Error: Please enter lines as SKU:QTY with a positive quantity, separated by commas.");
+                    }
+                    break;
+
+                case "receive order":
+                    try {
+                        System.out.print("Enter delivery lines (SKU:QTY, SKU:QTY, ...): ");
+                        Map<String, Integer> delivery = OrderParser.parse(scanner.nextLine());
+
+                        try {
+                            manager.receiveItems(delivery);
+                            TransactionLogger.logAll("RESTOCKED", delivery);
+                            System.out.println("✅ Stock updated for " + delivery.size() + " items.");
+                        } catch (ItemNotFoundException e) {
+                            System.out.println("❌ Error: " + e.getMessage() + ", nothing was received.");
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("❌ Error: Please enter lines as SKU:QTY with a positive quantity, separated by commas.");
+                    }
+                    break;
+
                 case "view all":
-                    HashTable<String, InventoryRecord> inventory = manager.getInventory();
-                    List<InventoryRecord> allItems = inventory.getAllInventory();
-                    if (allItems.isEmpty()) {
+                    IHashTable<String, InventoryRecord> inventory = manager.getInventory();
+                    int itemCount = inventory.size();
+                    if (itemCount == 0) {
                         System.out.println("📦 No items in inventory.");
                     } else {
-                        System.out.println("📦 All Items in Inventory (" + allItems.size() + " items):");
+                        System.out.println("📦 All Items in Inventory (" + itemCount + " items):");
                         System.out.println("─".repeat(80));
-                        for (InventoryRecord item : allItems) {
-                            System.out.println(item);
-                        }
+                        inventory.forEach((itemSku, item) -> System.out.println(item));
                         System.out.println("─".repeat(80));
                     }
                     break;
@@ -223,9 +264,33 @@ public class InventoryCLI {
                     }
                     break;
 
+                case "list expiring":
+                    try {
+                        System.out.print("Show items expiring within how many days?: ");
+                        int days = Integer.parseInt(scanner.nextLine());
+
+                        List<InventoryRecord> expiring = manager.listExpiringWithin(days);
+                        if (expiring.isEmpty()) {
+                            System.out.println("✅ No items expire within " + days + " days.");
+                        } else {
+                            System.out.println("⏳ Items expiring within " + days + " days:");
+                            for (InventoryRecord r : expiring) {
+                                System.out.println(r + " expires " + r.getExpiryDate());
+                            }
+                        }
+                    } catch (NumberFormatException e) {
+                        System.out.println("❌ Error: Please enter a valid number of days.");
+                    }
+                    break;
+
                 case "exit":
                     System.out.println("Saving and Exiting Inventory System. Goodbye!");
-                    FileHandler.saveInventory(manager.getInventory(), "inventory.csv");
+                    try {
+                        store.close();
+                    } catch (IOException e) {
+                        System.out.println("Error: " + e.getMessage());
+                    }
+                    TransactionLogger.close();
                     scanner.close();
                     return;
 
@@ -1,20 +1,27 @@
 package com.Daryappa.Inventory.cli;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 import com.Daryappa.Inventory.db.DatabaseInitializer;
 import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.model.ConcurrentUpdateException;
 import com.Daryappa.Inventory.model.InsufficientStockException;
 import com.Daryappa.Inventory.model.InventoryRecord;
 import com.Daryappa.Inventory.model.ItemNotFoundException;
+import com.Daryappa.Inventory.model.StorageException;
 import com.Daryappa.Inventory.service.InventoryManagerDB;
-import com.Daryappa.Inventory.utils.FileHandler;
+import com.Daryappa.Inventory.service.InventoryStore;
 import com.Daryappa.Inventory.utils.LogReaderDB;
+import com.Daryappa.Inventory.utils.OrderParser;
 import com.Daryappa.Inventory.utils.TransactionLoggerDB;
 
 public class InventoryCLIDB {
@@ -32,14 +39,19 @@ public class InventoryCLIDB {
         System.out.print("Do you want to load legacy CSV data into database? (yes/no): ");
         String loadLegacy = scanner.nextLine().trim().toLowerCase();
         if (loadLegacy.equals("yes")) {
-            HashTable<String, InventoryRecord> loadedInventory = FileHandler.loadInventory("inventory.csv");
-            manager.setInventory(loadedInventory);
+            try {
+                // file mode's latest state: its snapshot (or inventory.csv) plus the write-ahead log
+                HashTable<String, InventoryRecord> loadedInventory = new InventoryStore("inventory.bin", "inventory.csv").load();
+                manager.setInventory(loadedInventory);
+            } catch (IOException e) {
+                System.out.println("❌ Error: could not read the legacy inventory: " + e.getMessage());
+            }
         }
 
         System.out.println("📦 Welcome to Inventory Management System (Database Mode)");
 
         while (true) {
-            System.out.println("\nChoose an option: add | sell | receive | list | view all | suggest restock | suggest expiry | export action | export date | exit");
+            System.out.println("\nChoose an option: add | sell | receive | sell order | receive order | list | view item | view all | cache stats | import csv | suggest restock | suggest expiry | list expiring | export action | export date | exit");
             System.out.print(">> ");
             String command = scanner.nextLine().trim().toLowerCase();
 
@@ -61,10 +73,13 @@ public class InventoryCLIDB {
                     int shelfLife = Integer.parseInt(scanner.nextLine());
 
                     InventoryRecord item = new InventoryRecord(sku, name, qty, threshold, shelfLife);
-                    manager.addItem(item);
-                    TransactionLoggerDB.log("ADDED", sku, qty, name);
-
-                    System.out.println("✅ Item added successfully to database.");
+                    try {
+                        manager.addItem(item);
+                        TransactionLoggerDB.log("ADDED", sku, qty, name);
+                        System.out.println("✅ Item added successfully to database.");
+                    } catch (StorageException e) {
+                        System.out.println("❌ Error: " + e.getMessage() + ", the item was not added.");
+                    }
                     break;
 
                 case "sell":
@@ -78,7 +93,7 @@ public class InventoryCLIDB {
                         manager.sellItem(sellSku, sellQty);
                         TransactionLoggerDB.log("SOLD", sellSku, sellQty, null);
                         System.out.println("✅ Item sold successfully.");
-                    } catch (InsufficientStockException | ItemNotFoundException e) {
+                    } catch (InsufficientStockException | ItemNotFoundException | StorageException e) {
                         System.out.println("❌ Error: " + e.getMessage());
                     }
                     break;
@@ -94,7 +109,7 @@ public class InventoryCLIDB {
                         manager.receiveStock(receiveSku, receiveQty);
                         TransactionLoggerDB.log("RESTOCKED", receiveSku, receiveQty, null);
                         System.out.println("✅ Stock updated successfully.");
-                    } catch (ItemNotFoundException e) {
+                    } catch (ItemNotFoundException | StorageException e) {
                         System.out.println("❌ Error: " + e.getMessage());
                     }
                     break;
@@ -111,6 +126,68 @@ public class InventoryCLIDB {
                     }
                     break;
                     
+                case "view item":
+                    System.out.print("Enter SKU: ");
+                    String viewSku = scanner.nextLine();
+
+                    try {
+                        InventoryRecord found = manager.getItem(viewSku);
+                        System.out.println("📦 " + found + " expires " + found.getExpiryDate());
+                    } catch (ItemNotFoundException | StorageException e) {
+                        System.out.println("❌ Error: " + e.getMessage());
+                    }
+                    break;
+
+                case "cache stats":
+                    System.out.println("📊 Item cache: " + manager.getCacheStats());
+                    break;
+
+                case "import csv":
+                    System.out.print("Enter CSV file path: ");
+                    String importPath = scanner.nextLine().trim();
+                    if (!Files.exists(Path.of(importPath))) {
+                        System.out.println("❌ Error: " + importPath + " does not exist.");
+                        break;
+                    }
+                    if (manager.importCsv(importPath) < 0) {
+                        System.out.println("❌ Import stopped. Run it again to resume from the last committed batch.");
+                    }
+                    break;
+
+                case "sell order":
+                    try {
+                        System.out.print("Enter order lines (SKU:QTY, SKU:QTY, ...): ");
+                        Map<String, Integer> order = OrderParser.parse(scanner.nextLine());
+
+                        try {
+                            manager.sellItems(order);
+                            TransactionLoggerDB.logAll("SOLD", order);
+                            System.out.println("✅ Order of " + order.size() + " items sold successfully.");
+                        } catch (InsufficientStockException | ItemNotFoundException | ConcurrentUpdateException | StorageException e) {
+                            System.out.println("❌ Error: " + e.getMessage() + ", nothing was sold.");
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("❌ Error: Please enter lines as SKU:QTY with a positive quantity, separated by commas.");
+                    }
+                    break;
+
+                case "receive order":
+                    try {
+                        System.out.print("Enter delivery lines (SKU:QTY, SKU:QTY, ...): ");
+                        Map<String, Integer> delivery = OrderParser.parse(scanner.nextLine());
+
+                        try {
+                            manager.receiveItems(delivery);
+                            TransactionLoggerDB.logAll("RESTOCKED", delivery);
+                            System.out.println("✅ Stock updated for " + delivery.size() + " items.");
+                        } catch (ItemNotFoundException | ConcurrentUpdateException | StorageException e) {
+                            System.out.println("❌ Error: " + e.getMessage() + ", nothing was received.");
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("❌ Error: Please enter lines as SKU:QTY with a positive quantity, separated by commas.");
+                    }
+                    break;
+
                 case "view all":
                     List<InventoryRecord> allItems = manager.getAllItems();
                     if (allItems.isEmpty()) {
@@ -126,22 +203,20 @@ public class InventoryCLIDB {
                 case "export action":
                     System.out.print("Enter action (ADDED / SOLD / RESTOCKED): ");
                     String action = scanner.nextLine().trim().toUpperCase();
-                    List<String[]> filteredByAction = LogReaderDB.filterByAction(action);
-                    if (filteredByAction.isEmpty()) {
+                    System.out.print("Compress with gzip? (yes/no): ");
+                    boolean gzipAction = scanner.nextLine().trim().equalsIgnoreCase("yes");
+                    if (LogReaderDB.exportByAction(action, gzipAction) == 0) {
                         System.out.println("❌ No logs found for action: " + action);
-                    } else {
-                        LogReaderDB.exportToFile(filteredByAction, action);
                     }
                     break;
 
                 case "export date":
                     System.out.print("Enter date (dd-MM-yyyy): ");
                     String date = scanner.nextLine().trim();
-                    List<String[]> filteredByDate = LogReaderDB.filterByDate(date);
-                    if (filteredByDate.isEmpty()) {
+                    System.out.print("Compress with gzip? (yes/no): ");
+                    boolean gzipDate = scanner.nextLine().trim().equalsIgnoreCase("yes");
+                    if (LogReaderDB.exportByDate(date, gzipDate) == 0) {
                         System.out.println("❌ No logs found on date: " + date);
-                    } else {
-                        LogReaderDB.exportToFile(filteredByDate, "FILTERED");
                     }
                     break;
 
@@ -209,7 +284,23 @@ public class InventoryCLIDB {
                     }
                     break;
 
+                case "list expiring":
+                    System.out.print("Show items expiring within how many days?: ");
+                    int days = Integer.parseInt(scanner.nextLine());
+
+                    List<InventoryRecord> expiring = manager.listExpiringWithin(days);
+                    if (expiring.isEmpty()) {
+                        System.out.println("✅ No items expire within " + days + " days.");
+                    } else {
+                        System.out.println("⏳ Items expiring within " + days + " days:");
+                        for (InventoryRecord r : expiring) {
+                            System.out.println(r + " expires " + r.getExpiryDate());
+                        }
+                    }
+                    break;
+
                 case "exit":
+                    TransactionLoggerDB.shutdown();
                     System.out.println("👋 Exiting Inventory System. All data saved to database. Goodbye!");
                     scanner.close();
                     return;
@@ -0,0 +1,56 @@
+package com.Daryappa.Inventory.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.model.InventoryRecord;
+import com.Daryappa.Inventory.utils.BinarySnapshot;
+import com.Daryappa.Inventory.utils.FileHandler;
+
+// Converts file mode's inventory between the CSV layout and the binary snapshot format,
+// keeping the write-ahead log position either way:
+//   SnapshotTool to-binary inventory.csv inventory.bin
+//   SnapshotTool to-csv inventory.bin inventory.csv
+public class SnapshotTool {
+
+    public static void main(String[] args) {
+        if (args.length != 3) {
+            System.out.println("Usage: SnapshotTool to-binary <csv file> <snapshot file> | to-csv <snapshot file> <csv file>");
+            return;
+        }
+        String from = args[1];
+        String to = args[2];
+        if (!Files.exists(Path.of(from))) {
+            System.out.println("❌ Error: " + from + " does not exist.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            int count;
+            switch (args[0].toLowerCase()) {
+                case "to-binary":
+                    HashTable<String, InventoryRecord> inventory = FileHandler.loadInventory(from);
+                    BinarySnapshot.write(inventory.getAllInventory(), Path.of(to), FileHandler.readSnapshotSeq(from));
+                    count = inventory.size();
+                    break;
+
+                case "to-csv":
+                    BinarySnapshot snapshot = BinarySnapshot.read(Path.of(from));
+                    FileHandler.saveSnapshot(snapshot.inventory.getAllInventory(), to, snapshot.walSeq);
+                    count = snapshot.inventory.size();
+                    break;
+
+                default:
+                    System.out.println("❌ Error: unknown conversion " + args[0] + ", use to-binary or to-csv.");
+                    return;
+            }
+            System.out.printf("✅ Converted %d items from %s to %s in %d ms.%n",
+                    count, from, to, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            System.out.println("❌ Error: " + e.getMessage());
+        }
+    }
+}
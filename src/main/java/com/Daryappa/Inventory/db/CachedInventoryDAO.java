@@ -0,0 +1,219 @@
+package com.Daryappa.Inventory.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+// Read-through cache in front of InventoryDAO for single-item lookups.
+// Entries live in an access-ordered LinkedHashMap, so the least recently used item
+// is evicted once maxEntries is reached, and each entry expires after the TTL so
+// changes made by other processes are picked up eventually. Every write through this
+// DAO invalidates the SKU it touches. Callers get copies, never the cached instance.
+public class CachedInventoryDAO extends InventoryDAO {
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final long DEFAULT_TTL_SECONDS = 30;
+    // write counters are kept per stripe of SKUs, so a write only spoils the loads in flight
+    // for SKUs sharing its stripe rather than every load
+    private static final int VERSION_STRIPES = 256;
+    private static final int VERSION_SHIFT = 32 - Integer.numberOfTrailingZeros(VERSION_STRIPES);
+
+    private static final class Entry {
+        final InventoryRecord record;
+        final long expiresAt;
+
+        Entry(InventoryRecord record, long expiresAt) {
+            this.record = record;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Entry> cache;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // bumped by every invalidation of a SKU in the stripe, a load that raced with a write
+    // is not cached; guarded by this
+    private final long[] writeVersions = new long[VERSION_STRIPES];
+
+    public CachedInventoryDAO() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public CachedInventoryDAO(int maxEntries, long ttl, TimeUnit unit) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public InventoryRecord getItem(String sku) throws SQLException {
+        long version;
+        synchronized (this) {
+            Entry entry = cache.get(sku);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits.increment();
+                    return copy(entry.record);
+                }
+                cache.remove(sku);
+            }
+            version = writeVersions[stripeFor(sku)];
+        }
+
+        misses.increment();
+        InventoryRecord record = super.getItem(sku);
+        if (record != null) {
+            synchronized (this) {
+                if (version == writeVersions[stripeFor(sku)]) {
+                    cache.put(sku, new Entry(copy(record), System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public boolean exists(String sku) throws SQLException {
+        return getItem(sku) != null;
+    }
+
+    @Override
+    public void saveItem(InventoryRecord record) throws SQLException {
+        try {
+            super.saveItem(record);
+        } finally {
+            invalidate(record.getSku());
+        }
+    }
+
+    @Override
+    public void saveItems(Connection conn, Collection<InventoryRecord> records) throws SQLException {
+        try {
+            super.saveItems(conn, records);
+        } finally {
+            // the caller may still roll back, so drop the rows rather than caching them
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void updateQuantity(String sku, int newQuantity) throws SQLException {
+        try {
+            super.updateQuantity(sku, newQuantity);
+        } finally {
+            invalidate(sku);
+        }
+    }
+
+    @Override
+    public boolean decrementQuantity(String sku, int qty) throws SQLException {
+        try {
+            return super.decrementQuantity(sku, qty);
+        } finally {
+            invalidate(sku);
+        }
+    }
+
+    @Override
+    public boolean incrementQuantity(String sku, int qty) throws SQLException {
+        try {
+            return super.incrementQuantity(sku, qty);
+        } finally {
+            invalidate(sku);
+        }
+    }
+
+    @Override
+    public boolean adjustQuantityIfAvailable(String sku, long received, long net) throws SQLException {
+        try {
+            return super.adjustQuantityIfAvailable(sku, received, net);
+        } finally {
+            invalidate(sku);
+        }
+    }
+
+    @Override
+    public void adjustQuantity(Connection conn, String sku, long received, long net) throws SQLException {
+        try {
+            super.adjustQuantity(conn, sku, received, net);
+        } finally {
+            // callers invalidate again once their transaction ends
+            invalidate(sku);
+        }
+    }
+
+    @Override
+    public boolean adjustQuantities(Connection conn, Map<String, Integer> deltas,
+                                    HashTable<String, InventoryRecord> readAt) throws SQLException {
+        try {
+            return super.adjustQuantities(conn, deltas, readAt);
+        } finally {
+            // callers invalidate again once their transaction ends
+            for (String sku : deltas.keySet()) {
+                invalidate(sku);
+            }
+        }
+    }
+
+    @Override
+    public void deleteItem(String sku) throws SQLException {
+        try {
+            super.deleteItem(sku);
+        } finally {
+            invalidate(sku);
+        }
+    }
+
+    public synchronized void invalidate(String sku) {
+        writeVersions[stripeFor(sku)]++;
+        cache.remove(sku);
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            writeVersions[i]++;
+        }
+        cache.clear();
+    }
+
+    // High bits of a Fibonacci hash, as in ConcurrentHashTable
+    private static int stripeFor(String sku) {
+        return (sku.hashCode() * 0x9E3779B9) >>> VERSION_SHIFT;
+    }
+
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private static InventoryRecord copy(InventoryRecord r) {
+        InventoryRecord copy = new InventoryRecord(r.getSku(), r.getName(), r.getQuantity(),
+                r.getReorderThreshold(), r.getShelfLifeDays(), r.getReceivedDate());
+        copy.setVersion(r.getVersion());
+        return copy;
+    }
+}
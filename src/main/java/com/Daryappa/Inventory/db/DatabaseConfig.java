@@ -37,6 +37,8 @@ public class DatabaseConfig {
             config.addDataSourceProperty("cachePrepStmts", "true");
             config.addDataSourceProperty("prepStmtCacheSize", "250");
             config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+            // let the driver collapse JDBC batches into multi-row statements
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
             
             dataSource = new HikariDataSource(config);
             
@@ -1,11 +1,20 @@
 package com.Daryappa.Inventory.db;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 public class DatabaseInitializer {
     
+    // Same ranking as RestockIndex.priorityOf, maintained by MySQL on every write
+    // so the top restock candidates can be read straight off idx_restock_priority
+    private static final String RESTOCK_PRIORITY_EXPR =
+            "CASE WHEN reorder_threshold = 0 THEN 0 ELSE quantity * 100 DIV reorder_threshold END";
+    
+    // Expiry date of the stock on the shelf, indexed so "expiring soonest" is a range read
+    private static final String EXPIRES_ON_EXPR = "DATE_ADD(received_at, INTERVAL shelf_life_days DAY)";
+    
     public static void initializeDatabase() {
         try (Connection conn = DatabaseConfig.getConnection();
              Statement stmt = conn.createStatement()) {
@@ -18,18 +27,47 @@ public class DatabaseInitializer {
                     quantity INT NOT NULL DEFAULT 0,
                     reorder_threshold INT NOT NULL DEFAULT 0,
                     shelf_life_days INT NOT NULL DEFAULT 0,
+                    restock_priority INT GENERATED ALWAYS AS (%s) STORED,
+                    received_at DATE NOT NULL DEFAULT (CURRENT_DATE),
+                    expires_on DATE GENERATED ALWAYS AS (%s) STORED,
+                    version BIGINT NOT NULL DEFAULT 0,
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                    INDEX idx_restock_priority (restock_priority, sku),
+                    INDEX idx_expires_on (expires_on, sku)
                 )
-            """;
+            """.formatted(RESTOCK_PRIORITY_EXPR, EXPIRES_ON_EXPR);
             stmt.execute(createInventoryTable);
             
+            // Tables created before the restock index existed
+            if (!columnExists(conn, "inventory", "restock_priority")) {
+                stmt.execute("ALTER TABLE inventory ADD COLUMN restock_priority INT GENERATED ALWAYS AS ("
+                        + RESTOCK_PRIORITY_EXPR + ") STORED, ADD INDEX idx_restock_priority (restock_priority, sku)");
+            }
+            
+            // Tables created before received dates were tracked: assume stock arrived when the row was created
+            if (!columnExists(conn, "inventory", "received_at")) {
+                stmt.execute("ALTER TABLE inventory ADD COLUMN received_at DATE NULL");
+                stmt.execute("UPDATE inventory SET received_at = DATE(created_at)");
+                stmt.execute("ALTER TABLE inventory MODIFY received_at DATE NOT NULL DEFAULT (CURRENT_DATE)");
+            }
+            if (!columnExists(conn, "inventory", "expires_on")) {
+                stmt.execute("ALTER TABLE inventory ADD COLUMN expires_on DATE GENERATED ALWAYS AS ("
+                        + EXPIRES_ON_EXPR + ") STORED, ADD INDEX idx_expires_on (expires_on, sku)");
+            }
+            
+            // Tables created before compare-and-set updates: every existing row starts at version 0
+            if (!columnExists(conn, "inventory", "version")) {
+                stmt.execute("ALTER TABLE inventory ADD COLUMN version BIGINT NOT NULL DEFAULT 0");
+            }
+            
             // Create transaction log table
             String createLogTable = """
                 CREATE TABLE IF NOT EXISTS transaction_log (
                     id INT AUTO_INCREMENT PRIMARY KEY,
                     date VARCHAR(20) NOT NULL,
                     time VARCHAR(20) NOT NULL,
+                    event_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
                     action VARCHAR(50) NOT NULL,
                     sku VARCHAR(50),
                     quantity INT,
@@ -37,11 +75,44 @@ public class DatabaseInitializer {
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     INDEX idx_date (date),
                     INDEX idx_action (action),
-                    INDEX idx_sku (sku)
+                    INDEX idx_sku (sku),
+                    INDEX idx_event_time (event_time),
+                    INDEX idx_sku_event_time (sku, event_time)
                 )
             """;
             stmt.execute(createLogTable);
             
+            // Logs created with only the dd-MM-yyyy / HH:mm:ss text columns: parse them once,
+            // falling back to the insert time for rows that do not parse. Every step checks
+            // whether it is still needed, so a run that stopped half way is finished next start.
+            if (!columnExists(conn, "transaction_log", "event_time")) {
+                stmt.execute("ALTER TABLE transaction_log ADD COLUMN event_time DATETIME NULL AFTER time");
+            }
+            if (hasRows(conn, "SELECT 1 FROM transaction_log WHERE event_time IS NULL LIMIT 1")) {
+                // strict mode turns an unparseable STR_TO_DATE into an error instead of NULL;
+                // the connection goes back to the pool, so its mode is restored whatever happens
+                stmt.execute("SET @saved_sql_mode = @@SESSION.sql_mode");
+                try {
+                    stmt.execute("SET SESSION sql_mode = ''");
+                    stmt.execute("""
+                        UPDATE transaction_log
+                        SET event_time = COALESCE(STR_TO_DATE(CONCAT(date, ' ', time), '%d-%m-%Y %H:%i:%s'), created_at)
+                        WHERE event_time IS NULL
+                    """);
+                } finally {
+                    stmt.execute("SET SESSION sql_mode = @saved_sql_mode");
+                }
+            }
+            if (columnNullable(conn, "transaction_log", "event_time")) {
+                stmt.execute("ALTER TABLE transaction_log MODIFY event_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP");
+            }
+            if (!indexExists(conn, "transaction_log", "idx_event_time")) {
+                stmt.execute("ALTER TABLE transaction_log ADD INDEX idx_event_time (event_time)");
+            }
+            if (!indexExists(conn, "transaction_log", "idx_sku_event_time")) {
+                stmt.execute("ALTER TABLE transaction_log ADD INDEX idx_sku_event_time (sku, event_time)");
+            }
+            
             System.out.println("✅ Database tables initialized successfully.");
             
         } catch (SQLException e) {
@@ -50,6 +121,36 @@ public class DatabaseInitializer {
         }
     }
     
+    private static boolean columnExists(Connection conn, String table, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next();
+        }
+    }
+    
+    private static boolean columnNullable(Connection conn, String table, String column) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next() && "YES".equals(rs.getString("IS_NULLABLE"));
+        }
+    }
+    
+    private static boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), null, table, false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    private static boolean hasRows(Connection conn, String query) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            return rs.next();
+        }
+    }
+    
     public static void resetDatabase() {
         try (Connection conn = DatabaseConfig.getConnection();
              Statement stmt = conn.createStatement()) {
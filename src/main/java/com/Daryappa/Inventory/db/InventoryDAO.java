@@ -1,42 +1,130 @@
 package com.Daryappa.Inventory.db;
 
 import java.sql.Connection;
+import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
+import com.Daryappa.Inventory.ds.HashTable;
 import com.Daryappa.Inventory.model.InventoryRecord;
 
 public class InventoryDAO {
     
+    // rows per executeBatch call during bulk upserts
+    private static final int BATCH_SIZE = 1000;
+    
+    // Every write bumps the row's version, so a compare-and-set update based on an older
+    // read (see adjustQuantities) finds the version changed and matches no row.
+    
+    // Stock arriving on an empty shelf restarts the expiry clock (MySQL applies
+    // SET assignments left to right, so received_at sees the old quantity)
+    private static final String ADJUST_SQL = """
+        UPDATE inventory
+        SET received_at = IF(quantity = 0 AND ? > 0, CURRENT_DATE, received_at),
+            quantity = quantity + ?,
+            version = version + 1
+        WHERE sku = ?
+    """;
+    
+    // ADJUST_SQL, applied only if the row is still at the version it was read at
+    private static final String ADJUST_IF_VERSION_SQL = ADJUST_SQL.replace(
+        "WHERE sku = ?", "WHERE sku = ? AND version = ?");
+    
+    // ADJUST_SQL, applied only if the stock stays at zero or more
+    private static final String ADJUST_IF_AVAILABLE_SQL = ADJUST_SQL.replace(
+        "WHERE sku = ?", "WHERE sku = ? AND quantity + ? >= 0");
+    
+    private static final String UPSERT_SQL = """
+        INSERT INTO inventory (sku, name, quantity, reorder_threshold, shelf_life_days, received_at)
+        VALUES (?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE
+            name = VALUES(name),
+            quantity = VALUES(quantity),
+            reorder_threshold = VALUES(reorder_threshold),
+            shelf_life_days = VALUES(shelf_life_days),
+            received_at = VALUES(received_at),
+            version = version + 1
+    """;
+    
+    private static InventoryRecord readRecord(ResultSet rs) throws SQLException {
+        InventoryRecord record = new InventoryRecord(
+            rs.getString("sku"),
+            rs.getString("name"),
+            rs.getInt("quantity"),
+            rs.getInt("reorder_threshold"),
+            rs.getInt("shelf_life_days"),
+            rs.getDate("received_at").toLocalDate()
+        );
+        record.setVersion(rs.getLong("version"));
+        return record;
+    }
+    
+    private static void bindRecord(PreparedStatement pstmt, InventoryRecord record) throws SQLException {
+        pstmt.setString(1, record.getSku());
+        pstmt.setString(2, record.getName());
+        pstmt.setInt(3, record.getQuantity());
+        pstmt.setInt(4, record.getReorderThreshold());
+        pstmt.setInt(5, record.getShelfLifeDays());
+        pstmt.setDate(6, Date.valueOf(record.getReceivedDate()));
+    }
+    
     // Create or update inventory item
     public void saveItem(InventoryRecord record) throws SQLException {
-        String sql = """
-            INSERT INTO inventory (sku, name, quantity, reorder_threshold, shelf_life_days)
-            VALUES (?, ?, ?, ?, ?)
-            ON DUPLICATE KEY UPDATE
-                name = VALUES(name),
-                quantity = VALUES(quantity),
-                reorder_threshold = VALUES(reorder_threshold),
-                shelf_life_days = VALUES(shelf_life_days)
-        """;
-        
         try (Connection conn = DatabaseConfig.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, record.getSku());
-            pstmt.setString(2, record.getName());
-            pstmt.setInt(3, record.getQuantity());
-            pstmt.setInt(4, record.getReorderThreshold());
-            pstmt.setInt(5, record.getShelfLifeDays());
+             PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
             
+            bindRecord(pstmt, record);
             pstmt.executeUpdate();
         }
     }
     
+    // Create or update many items in one transaction; all rows are written or none are
+    public void saveItems(Collection<InventoryRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return;
+        }
+        
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                saveItems(conn, records);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+    
+    // Batched upsert on a caller-managed connection; the caller owns the transaction.
+    // With rewriteBatchedStatements the driver sends each chunk as one multi-row INSERT.
+    public void saveItems(Connection conn, Collection<InventoryRecord> records) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            int pending = 0;
+            for (InventoryRecord record : records) {
+                bindRecord(pstmt, record);
+                pstmt.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    pstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+    
     // Get item by SKU
     public InventoryRecord getItem(String sku) throws SQLException {
         String sql = "SELECT * FROM inventory WHERE sku = ?";
@@ -48,13 +136,7 @@ public class InventoryDAO {
             ResultSet rs = pstmt.executeQuery();
             
             if (rs.next()) {
-                return new InventoryRecord(
-                    rs.getString("sku"),
-                    rs.getString("name"),
-                    rs.getInt("quantity"),
-                    rs.getInt("reorder_threshold"),
-                    rs.getInt("shelf_life_days")
-                );
+                return readRecord(rs);
             }
             return null;
         }
@@ -70,13 +152,7 @@ public class InventoryDAO {
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                items.add(new InventoryRecord(
-                    rs.getString("sku"),
-                    rs.getString("name"),
-                    rs.getInt("quantity"),
-                    rs.getInt("reorder_threshold"),
-                    rs.getInt("shelf_life_days")
-                ));
+                items.add(readRecord(rs));
             }
         }
         
@@ -85,7 +161,7 @@ public class InventoryDAO {
     
     // Update quantity
     public void updateQuantity(String sku, int newQuantity) throws SQLException {
-        String sql = "UPDATE inventory SET quantity = ? WHERE sku = ?";
+        String sql = "UPDATE inventory SET quantity = ?, version = version + 1 WHERE sku = ?";
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -100,6 +176,127 @@ public class InventoryDAO {
         }
     }
     
+    // Atomically take qty out of stock, only if at least qty is left.
+    // Returns false when nothing was updated: the SKU is missing or stock is short.
+    public boolean decrementQuantity(String sku, int qty) throws SQLException {
+        String sql = "UPDATE inventory SET quantity = quantity - ?, version = version + 1 WHERE sku = ? AND quantity >= ?";
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, qty);
+            pstmt.setString(2, sku);
+            pstmt.setInt(3, qty);
+            
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+    
+    // Atomically add qty to stock; returns false if the SKU does not exist.
+    // Stock arriving on an empty shelf restarts the expiry clock, see ADJUST_SQL.
+    public boolean incrementQuantity(String sku, int qty) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ADJUST_SQL)) {
+            
+            pstmt.setInt(1, qty);
+            pstmt.setInt(2, qty);
+            pstmt.setString(3, sku);
+            
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+    
+    // Adds net to the stock, of which received arrived as new stock, only if that leaves
+    // zero or more. Returns false when nothing was updated: the SKU is missing or stock is
+    // short. Used to apply many combined sells and receives of one SKU as one statement.
+    public boolean adjustQuantityIfAvailable(String sku, long received, long net) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ADJUST_IF_AVAILABLE_SQL)) {
+            
+            pstmt.setLong(1, received);
+            pstmt.setLong(2, net);
+            pstmt.setString(3, sku);
+            pstmt.setLong(4, net);
+            
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+    
+    // Locks one row for the caller's transaction and returns it, or null if there is none
+    public InventoryRecord lockItem(Connection conn, String sku) throws SQLException {
+        String sql = "SELECT * FROM inventory WHERE sku = ? FOR UPDATE";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, sku);
+            ResultSet rs = pstmt.executeQuery();
+            
+            if (rs.next()) {
+                return readRecord(rs);
+            }
+            return null;
+        }
+    }
+    
+    // Adds net to the stock, of which received arrived as new stock, on the caller's
+    // transaction (normally on a row it has locked with lockItem)
+    public void adjustQuantity(Connection conn, String sku, long received, long net) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_SQL)) {
+            pstmt.setLong(1, received);
+            pstmt.setLong(2, net);
+            pstmt.setString(3, sku);
+            pstmt.executeUpdate();
+        }
+    }
+    
+    // The rows of these SKUs by SKU, each with the version it was read at; SKUs with no
+    // row are left out. Nothing is locked, see adjustQuantities.
+    public HashTable<String, InventoryRecord> getItems(Connection conn, Collection<String> skus) throws SQLException {
+        HashTable<String, InventoryRecord> items = new HashTable<>(skus.size());
+        if (skus.isEmpty()) {
+            return items;
+        }
+        String sql = "SELECT * FROM inventory WHERE sku IN (" + "?, ".repeat(skus.size() - 1) + "?)";
+        
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (String sku : skus) {
+                pstmt.setString(i++, sku);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            
+            while (rs.next()) {
+                InventoryRecord item = readRecord(rs);
+                items.put(item.getSku(), item);
+            }
+        }
+        return items;
+    }
+    
+    // Compare-and-set: adds each delta (negative to take stock out) as one batch on the
+    // caller's transaction, each row only if it is still at the version in readAt.
+    // Returns false if any row had changed since it was read; the caller must then roll
+    // back, as the rows that did match are already updated. Receiving onto an empty shelf
+    // restarts the expiry clock as in incrementQuantity.
+    public boolean adjustQuantities(Connection conn, Map<String, Integer> deltas,
+                                    HashTable<String, InventoryRecord> readAt) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(ADJUST_IF_VERSION_SQL)) {
+            for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+                pstmt.setInt(1, delta.getValue());
+                pstmt.setInt(2, delta.getValue());
+                pstmt.setString(3, delta.getKey());
+                pstmt.setLong(4, readAt.get(delta.getKey()).getVersion());
+                pstmt.addBatch();
+            }
+            for (int count : pstmt.executeBatch()) {
+                // anything but exactly one matched row counts as a conflict
+                if (count != 1) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+    
     // Check if item exists
     public boolean exists(String sku) throws SQLException {
         String sql = "SELECT COUNT(*) FROM inventory WHERE sku = ?";
@@ -127,13 +324,64 @@ public class InventoryDAO {
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                items.add(new InventoryRecord(
-                    rs.getString("sku"),
-                    rs.getString("name"),
-                    rs.getInt("quantity"),
-                    rs.getInt("reorder_threshold"),
-                    rs.getInt("shelf_life_days")
-                ));
+                items.add(readRecord(rs));
+            }
+        }
+        
+        return items;
+    }
+    
+    // Get the most urgent restock candidates (walks idx_restock_priority, no full scan)
+    public List<InventoryRecord> getRestockCandidates(int limit) throws SQLException {
+        String sql = "SELECT * FROM inventory ORDER BY restock_priority, sku LIMIT ?";
+        List<InventoryRecord> items = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(readRecord(rs));
+                }
+            }
+        }
+        
+        return items;
+    }
+    
+    // Get the items expiring soonest, already expired first (walks idx_expires_on)
+    public List<InventoryRecord> getSoonestExpiring(int limit) throws SQLException {
+        String sql = "SELECT * FROM inventory ORDER BY expires_on, sku LIMIT ?";
+        List<InventoryRecord> items = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(readRecord(rs));
+                }
+            }
+        }
+        
+        return items;
+    }
+    
+    // Get items whose expiry date is on or before the given date
+    public List<InventoryRecord> getItemsExpiringBy(LocalDate lastDay) throws SQLException {
+        String sql = "SELECT * FROM inventory WHERE expires_on <= ? ORDER BY expires_on, sku";
+        List<InventoryRecord> items = new ArrayList<>();
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            pstmt.setDate(1, Date.valueOf(lastDay));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(readRecord(rs));
+                }
             }
         }
         
@@ -5,32 +5,95 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+
+import com.Daryappa.Inventory.model.LogEntry;
 
 public class TransactionLogDAO {
     
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    
+    private static final String ENTRY_COLUMNS = "id, event_time, date, time, action, sku, quantity, item_name";
+    
+    private static void bindEntry(PreparedStatement pstmt, LogEntry entry) throws SQLException {
+        LocalDateTime eventTime = entry.getEventTime();
+        pstmt.setString(1, entry.getDate());
+        pstmt.setString(2, entry.getTime());
+        pstmt.setTimestamp(3, Timestamp.valueOf(eventTime != null ? eventTime : LocalDateTime.now()));
+        pstmt.setString(4, entry.getAction());
+        pstmt.setString(5, entry.getSku());
+        pstmt.setInt(6, entry.getQuantity());
+        pstmt.setString(7, entry.getItemName());
+    }
+    
+    private static LogEntry readEntry(ResultSet rs) throws SQLException {
+        return new LogEntry(
+            rs.getLong("id"),
+            rs.getTimestamp("event_time").toLocalDateTime(),
+            rs.getString("date"),
+            rs.getString("time"),
+            rs.getString("action"),
+            rs.getString("sku"),
+            rs.getInt("quantity"),
+            rs.getString("item_name")
+        );
+    }
+    
     // Log a transaction
     public void logTransaction(String date, String time, String action, String sku, int quantity, String itemName) throws SQLException {
         String sql = """
-            INSERT INTO transaction_log (date, time, action, sku, quantity, item_name)
-            VALUES (?, ?, ?, ?, ?, ?)
+            INSERT INTO transaction_log (date, time, event_time, action, sku, quantity, item_name)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
         """;
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, date);
-            pstmt.setString(2, time);
-            pstmt.setString(3, action);
-            pstmt.setString(4, sku);
-            pstmt.setInt(5, quantity);
-            pstmt.setString(6, itemName);
-            
+            bindEntry(pstmt, new LogEntry(date, time, action, sku, quantity, itemName));
             pstmt.executeUpdate();
         }
     }
     
+    // Log many transactions as one batch in a single commit.
+    // With rewriteBatchedStatements the driver sends the batch as one multi-row INSERT.
+    public void logTransactions(List<LogEntry> entries) throws SQLException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        
+        String sql = """
+            INSERT INTO transaction_log (date, time, event_time, action, sku, quantity, item_name)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+        """;
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                for (LogEntry entry : entries) {
+                    bindEntry(pstmt, entry);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+    
     // Get all logs
     public List<String[]> getAllLogs() throws SQLException {
         String sql = "SELECT date, time, action, sku, quantity, item_name FROM transaction_log ORDER BY id DESC";
@@ -81,15 +144,27 @@ public class TransactionLogDAO {
         return logs;
     }
     
-    // Filter logs by date
+    // Filter logs by date (dd-MM-yyyy), read as a one-day range on idx_event_time
     public List<String[]> getLogsByDate(String date) throws SQLException {
-        String sql = "SELECT date, time, action, sku, quantity, item_name FROM transaction_log WHERE date = ? ORDER BY id DESC";
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date.trim(), DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return new ArrayList<>();
+        }
+        
+        String sql = """
+            SELECT date, time, action, sku, quantity, item_name FROM transaction_log
+            WHERE event_time >= ? AND event_time < ?
+            ORDER BY event_time DESC, id DESC
+        """;
         List<String[]> logs = new ArrayList<>();
         
         try (Connection conn = DatabaseConfig.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
-            pstmt.setString(1, date);
+            pstmt.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+            pstmt.setTimestamp(2, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
             ResultSet rs = pstmt.executeQuery();
             
             while (rs.next()) {
@@ -107,6 +182,112 @@ public class TransactionLogDAO {
         return logs;
     }
     
+    // One page of logs with from <= event_time < to, newest first.
+    // Pass the last entry of the previous page as after (null for the first page):
+    // the next page starts right below its (event_time, id), so deep pages cost
+    // the same index range read as the first one instead of an OFFSET scan.
+    public List<LogEntry> getLogsBetween(LocalDateTime from, LocalDateTime to, LogEntry after, int limit) throws SQLException {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM transaction_log"
+                + " WHERE event_time >= ? AND event_time < ?"
+                + (after != null ? " AND (event_time, id) < (?, ?)" : "")
+                + " ORDER BY event_time DESC, id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int i = 1;
+            pstmt.setTimestamp(i++, Timestamp.valueOf(from));
+            pstmt.setTimestamp(i++, Timestamp.valueOf(to));
+            if (after != null) {
+                pstmt.setTimestamp(i++, Timestamp.valueOf(after.getEventTime()));
+                pstmt.setLong(i++, after.getId());
+            }
+            pstmt.setInt(i, limit);
+            
+            return readEntries(pstmt);
+        }
+    }
+    
+    // Same as getLogsBetween for a single SKU, served by idx_sku_event_time
+    public List<LogEntry> getLogsForSkuBetween(String sku, LocalDateTime from, LocalDateTime to, LogEntry after, int limit) throws SQLException {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM transaction_log"
+                + " WHERE sku = ? AND event_time >= ? AND event_time < ?"
+                + (after != null ? " AND (event_time, id) < (?, ?)" : "")
+                + " ORDER BY event_time DESC, id DESC LIMIT ?";
+        
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            
+            int i = 1;
+            pstmt.setString(i++, sku);
+            pstmt.setTimestamp(i++, Timestamp.valueOf(from));
+            pstmt.setTimestamp(i++, Timestamp.valueOf(to));
+            if (after != null) {
+                pstmt.setTimestamp(i++, Timestamp.valueOf(after.getEventTime()));
+                pstmt.setLong(i++, after.getId());
+            }
+            pstmt.setInt(i, limit);
+            
+            return readEntries(pstmt);
+        }
+    }
+    
+    // Streams every log row to sink, newest first; returns the number of rows
+    public long forEachLog(Consumer<LogEntry> sink) throws SQLException {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM transaction_log ORDER BY id DESC";
+        return stream(sql, pstmt -> { }, sink);
+    }
+    
+    // Streams the rows for one action to sink, newest first
+    public long forEachLogByAction(String action, Consumer<LogEntry> sink) throws SQLException {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM transaction_log WHERE action = ? ORDER BY id DESC";
+        return stream(sql, pstmt -> pstmt.setString(1, action), sink);
+    }
+    
+    // Streams the rows with from <= event_time < to to sink, newest first
+    public long forEachLogBetween(LocalDateTime from, LocalDateTime to, Consumer<LogEntry> sink) throws SQLException {
+        String sql = "SELECT " + ENTRY_COLUMNS + " FROM transaction_log"
+                + " WHERE event_time >= ? AND event_time < ? ORDER BY event_time DESC, id DESC";
+        return stream(sql, pstmt -> {
+            pstmt.setTimestamp(1, Timestamp.valueOf(from));
+            pstmt.setTimestamp(2, Timestamp.valueOf(to));
+        }, sink);
+    }
+    
+    private interface Binder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+    
+    // Forward-only, read-only result set with fetch size Integer.MIN_VALUE: MySQL Connector/J
+    // then streams rows off the socket one at a time instead of buffering the whole result
+    private static long stream(String sql, Binder binder, Consumer<LogEntry> sink) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            binder.bind(pstmt);
+            
+            long count = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(readEntry(rs));
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+    
+    private static List<LogEntry> readEntries(PreparedStatement pstmt) throws SQLException {
+        List<LogEntry> entries = new ArrayList<>();
+        try (ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                entries.add(readEntry(rs));
+            }
+        }
+        return entries;
+    }
+    
     // Get log count
     public int getLogCount() throws SQLException {
         String sql = "SELECT COUNT(*) FROM transaction_log";
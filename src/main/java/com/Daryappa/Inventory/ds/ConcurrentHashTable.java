@@ -0,0 +1,249 @@
+package com.Daryappa.Inventory.ds;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+// Lock-striped hash table: the key space is split over independent HashTable segments,
+// each guarded by its own lock, so operations on different SKUs rarely contend.
+// Bulk views (keySet, getAllInventory, size) are weakly consistent: each segment is
+// read under its lock but the segments are not frozen together.
+public class ConcurrentHashTable<K,V> implements IHashTable<K,V> {
+    private static final int MIN_STRIPES = 16;
+    private static final int MAX_STRIPES = 1024;
+
+    private final HashTable<K,V>[] segments;
+    private final ReentrantLock[] locks;
+    private final int shift;
+
+    public ConcurrentHashTable() {
+        this(HashTable.DFAULT_SIZE);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentHashTable(int expectedSize) {
+        int wanted = Runtime.getRuntime().availableProcessors() * 4;
+        int stripes = Math.max(MIN_STRIPES, Math.min(MAX_STRIPES, Integer.highestOneBit(wanted - 1) << 1));
+        this.shift = 32 - Integer.numberOfTrailingZeros(stripes);
+        this.segments = (HashTable<K,V>[]) new HashTable<?, ?>[stripes];
+        this.locks = new ReentrantLock[stripes];
+        int perSegment = Math.max(1, expectedSize / stripes);
+        for (int i = 0; i < stripes; i++) {
+            segments[i] = new HashTable<>(perSegment);
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    // Uses the high bits of a Fibonacci hash so the stripe choice is independent
+    // of the low bits each segment uses for its own slot index
+    int stripeFor(Object key) {
+        return (key.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    int stripeCount() {
+        return segments.length;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        int s = stripeFor(key);
+        locks[s].lock();
+        try {
+            segments[s].put(key, value);
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    // Returns the existing value, or null if the new value was stored
+    public V putIfAbsent(K key, V value) {
+        int s = stripeFor(key);
+        locks[s].lock();
+        try {
+            V existing = segments[s].get(key);
+            if (existing == null) {
+                segments[s].put(key, value);
+            }
+            return existing;
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    @Override
+    public V get(K key) {
+        int s = stripeFor(key);
+        locks[s].lock();
+        try {
+            return segments[s].get(key);
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        int s = stripeFor(key);
+        locks[s].lock();
+        try {
+            segments[s].remove(key);
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        int s = stripeFor(key);
+        locks[s].lock();
+        try {
+            return segments[s].containsKey(key);
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    // Atomically applies fn to the current value while holding the key's stripe lock.
+    // Returns the new value, or null if the key is absent. If fn returns null the entry is removed.
+    // Exceptions thrown by fn propagate with the table left unchanged.
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> fn) {
+        int s = stripeFor(key);
+        locks[s].lock();
+        try {
+            HashTable<K,V> segment = segments[s];
+            V current = segment.get(key);
+            if (current == null) return null;
+            V updated = fn.apply(key, current);
+            if (updated == null) {
+                segment.remove(key);
+            } else if (updated != current) {
+                segment.put(key, updated);
+            }
+            return updated;
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    // Like computeIfPresent, but fn also runs for an absent key (with a null value),
+    // so inserts can be combined with other work under the same stripe lock
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> fn) {
+        int s = stripeFor(key);
+        locks[s].lock();
+        try {
+            HashTable<K,V> segment = segments[s];
+            V current = segment.get(key);
+            V updated = fn.apply(key, current);
+            if (updated == null) {
+                if (current != null) segment.remove(key);
+            } else if (updated != current) {
+                segment.put(key, updated);
+            }
+            return updated;
+        } finally {
+            locks[s].unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        int total = 0;
+        for (int s = 0; s < segments.length; s++) {
+            locks[s].lock();
+            try {
+                total += segments[s].size();
+            } finally {
+                locks[s].unlock();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public List<K> keySet() {
+        List<K> result = new ArrayList<>();
+        for (int s = 0; s < segments.length; s++) {
+            locks[s].lock();
+            try {
+                result.addAll(segments[s].keySet());
+            } finally {
+                locks[s].unlock();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<V> getAllInventory() {
+        List<V> result = new ArrayList<>();
+        for (int s = 0; s < segments.length; s++) {
+            locks[s].lock();
+            try {
+                result.addAll(segments[s].getAllInventory());
+            } finally {
+                locks[s].unlock();
+            }
+        }
+        return result;
+    }
+
+    // Visits each segment under its lock; the action must not block for long
+    // since writers to that segment wait for it
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (int s = 0; s < segments.length; s++) {
+            locks[s].lock();
+            try {
+                segments[s].forEach(action);
+            } finally {
+                locks[s].unlock();
+            }
+        }
+    }
+
+    // Runs action with every segment locked (always in segment order, so two callers cannot
+    // deadlock), giving it a frozen view of the table; per-key and forEach calls made by the
+    // action itself re-enter the held locks
+    public void runExclusive(Runnable action) {
+        int locked = 0;
+        try {
+            for (; locked < locks.length; locked++) {
+                locks[locked].lock();
+            }
+            action.run();
+        } finally {
+            for (int s = locked - 1; s >= 0; s--) {
+                locks[s].unlock();
+            }
+        }
+    }
+
+    // Runs action holding the stripe locks of all the keys, taken in ascending stripe order
+    // (the same order runExclusive uses), so multi-key callers cannot deadlock each other;
+    // per-key calls the action makes on these keys re-enter the held locks
+    public void runLocked(Collection<? extends K> keys, Runnable action) {
+        boolean[] wanted = new boolean[locks.length];
+        for (K key : keys) {
+            wanted[stripeFor(key)] = true;
+        }
+        int[] order = new int[locks.length];
+        int count = 0;
+        for (int s = 0; s < wanted.length; s++) {
+            if (wanted[s]) order[count++] = s;
+        }
+        int locked = 0;
+        try {
+            for (; locked < count; locked++) {
+                locks[order[locked]].lock();
+            }
+            action.run();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[order[i]].unlock();
+            }
+        }
+    }
+}
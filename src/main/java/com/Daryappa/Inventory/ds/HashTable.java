@@ -1,111 +1,297 @@
 package com.Daryappa.Inventory.ds;
 
-import com.Daryappa.Inventory.model.InventoryRecord;
-
-
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
-public class HashTable<K,V> {
+// Open addressing hash table with linear probing.
+// Keys, values and cached hashes live in flat parallel arrays (no node per entry),
+// and the table doubles once it passes the load factor so lookups stay O(1).
+public class HashTable<K,V> implements IHashTable<K,V> {
     public final static int DFAULT_SIZE=16;
-    private static class Node<K, V> {
-        K key;
-        V value;
-
-        Node(K key, V value) {
-            this.key = key;
-            this.value = value;
-        }
-
-    }
+    private static final float LOAD_FACTOR = 0.7f;
+    private static final int MAX_CAPACITY = 1 << 30;
 
-    private List<Node<K, V>>[] buckets;
+    private Object[] keys;
+    private Object[] values;
+    private int[] hashes;
     private int capacity;
     private int size;
+    private int resizeAt;
 
     public HashTable() {
-        this.capacity = 16;// the default capacity of 16
-        this.buckets = new LinkedList[capacity];
-        for (int i = 0; i < capacity; i++) {
-            buckets[i] = new LinkedList<>();
-        }
+        this(DFAULT_SIZE);
+    }
+
+    // Pre-size for an expected number of entries so bulk loads never resize
+    public HashTable(int expectedSize) {
+        int needed = (int) Math.min(MAX_CAPACITY, (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR));
+        allocate(Math.max(DFAULT_SIZE, tableSizeFor(needed)));
         this.size = 0;
     }
+
     public int getCapacity(){
         return this.capacity;
     }
 
-    private int getBucketIndex(K key) {
-        return Math.abs(key.hashCode()) % capacity;
+    @Override
+    public int size() {
+        return size;
     }
 
-    public void put(K key, V value) {
-        int index = getBucketIndex(key);
-        List<Node<K, V>> bucket = buckets[index];
-        for (Node<K, V> node : bucket) {
-            if (node.key.equals(key)) {
-                node.value = value;
-                return;
-            }
-        }
-
-        bucket.add(new Node<>(key, value));
-        size++;
+    public boolean isEmpty() {
+        return size == 0;
     }
 
+    private static int tableSizeFor(int n) {
+        int highest = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.min(highest, MAX_CAPACITY);
+    }
 
+    // murmur3 finalizer, spreads poor hashCode() values (e.g. sequential numeric SKUs) over the whole table
+    static int mix(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
 
-    public V get(K key) {
-        int index = getBucketIndex(key);
-        List<Node<K, V>> bucket = buckets[index];
-        for (Node<K, V> node : bucket) {
-            if (node.key.equals(key)) {
+    private void allocate(int newCapacity) {
+        this.capacity = newCapacity;
+        this.keys = new Object[newCapacity];
+        this.values = new Object[newCapacity];
+        this.hashes = new int[newCapacity];
+        this.resizeAt = (int) (newCapacity * LOAD_FACTOR);
+    }
 
-                return node.value;
+    // Returns the slot holding the key, or -1 if it is not present
+    private int findSlot(Object key, int hash) {
+        int mask = capacity - 1;
+        int index = hash & mask;
+        Object k;
+        while ((k = keys[index]) != null) {
+            if (hashes[index] == hash && (k == key || k.equals(key))) {
+                return index;
             }
+            index = (index + 1) & mask;
         }
-        return null; // in case we dont find the key in the linked list
+        return -1;
     }
 
-    public void remove(K key) {
-        int index = getBucketIndex(key);
-        List<Node<K, V>> bucket = buckets[index];
-        for (Node<K, V> node : bucket) {
-            if (node.key.equals(key)) {
-                bucket.remove(node);
-                size--;
+    @Override
+    public void put(K key, V value) {
+        int hash = mix(key);
+        int mask = capacity - 1;
+        int index = hash & mask;
+        Object k;
+        while ((k = keys[index]) != null) {
+            if (hashes[index] == hash && (k == key || k.equals(key))) {
+                values[index] = value;
                 return;
             }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        hashes[index] = hash;
+        if (++size > resizeAt) {
+            resize();
         }
     }
 
-    public boolean containsKey(K key) {
-        int index = getBucketIndex(key);
-        List<Node<K, V>> bucket = buckets[index];
+    private void resize() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("HashTable cannot grow beyond " + MAX_CAPACITY + " slots");
+        }
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(capacity << 1);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) continue;
+            int index = oldHashes[i] & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+            hashes[index] = oldHashes[i];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(K key) {
+        int index = findSlot(key, mix(key));
+        return index < 0 ? null : (V) values[index]; // null in case we dont find the key
+    }
+
+    @Override
+    public void remove(K key) {
+        int index = findSlot(key, mix(key));
+        if (index < 0) return;
+        deleteSlot(index);
+        size--;
+    }
 
-        for (Node<K, V> node : bucket) {
-            if (node.key.equals(key)) {
-                return true;
+    // Backward-shift deletion: pull later entries of the same probe run into the gap,
+    // so the table never needs tombstones
+    private void deleteSlot(int gap) {
+        int mask = capacity - 1;
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (keys[index] == null) break;
+            int home = hashes[index] & mask;
+            // move the entry back only if its home slot is not between the gap and its current slot
+            boolean movable = (gap <= index) ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                hashes[gap] = hashes[index];
+                gap = index;
             }
         }
-        return false;
+        keys[gap] = null;
+        values[gap] = null;
+        hashes[gap] = 0;
     }
 
+    @Override
+    public boolean containsKey(K key) {
+        return findSlot(key, mix(key)) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
     public List<K> keySet() {
-        List<K> keys = new LinkedList<>();
-        for (List<Node<K, V>> bucket : buckets) {
-            for (Node<K, V> node : bucket) {
-                keys.add(node.key);
+        List<K> result = new ArrayList<>(size);
+        for (Object k : keys) {
+            if (k != null) {
+                result.add((K) k);
             }
         }
-    return keys;
+        return result;
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
     public List<V> getAllInventory(){
-        List<V> result=new ArrayList<>();
-        for (List<Node<K,V>> nodeList: buckets){
-            for (Node<K,V> node: nodeList){
-                result.add(node.value);
+        List<V> result=new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                result.add((V) values[i]);
             }
         }
         return result;
     }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Object[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != null) {
+                action.accept((K) ks[i], (V) vs[i]);
+            }
+        }
+    }
+
+    // Cursor over the live slots; one object per scan instead of one per entry.
+    // Not valid across a put() that resizes the table.
+    public Cursor<K,V> cursor() {
+        return new Cursor<>(this);
+    }
+
+    public static final class Cursor<K,V> {
+        private final HashTable<K,V> table;
+        private int slot = -1;
+
+        private Cursor(HashTable<K,V> table) {
+            this.table = table;
+        }
+
+        public boolean advance() {
+            Object[] ks = table.keys;
+            while (++slot < ks.length) {
+                if (ks[slot] != null) return true;
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        public K key() {
+            return (K) table.keys[slot];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            return (V) table.values[slot];
+        }
+    }
+
+    // Splits by slot range, so parallel scans can share the flat arrays without copying
+    public Spliterator<V> valueSpliterator() {
+        return new ValueSpliterator(0, capacity);
+    }
+
+    private final class ValueSpliterator implements Spliterator<V> {
+        private int index;
+        private final int end;
+
+        ValueSpliterator(int index, int end) {
+            this.index = index;
+            this.end = end;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public boolean tryAdvance(Consumer<? super V> action) {
+            while (index < end) {
+                int i = index++;
+                if (keys[i] != null) {
+                    action.accept((V) values[i]);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void forEachRemaining(Consumer<? super V> action) {
+            Object[] ks = keys;
+            Object[] vs = values;
+            for (int i = index; i < end; i++) {
+                if (ks[i] != null) {
+                    action.accept((V) vs[i]);
+                }
+            }
+            index = end;
+        }
+
+        @Override
+        public Spliterator<V> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (end - index < 1024) return null;
+            Spliterator<V> prefix = new ValueSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return capacity == 0 ? 0 : (long) size * (end - index) / capacity;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.NONNULL;
+        }
+    }
 }
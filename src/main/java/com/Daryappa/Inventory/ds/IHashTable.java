@@ -0,0 +1,16 @@
+package com.Daryappa.Inventory.ds;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+public interface IHashTable<K,V> {
+    void put(K key, V value);
+    V get(K key);
+    void remove(K key);
+    boolean containsKey(K key);
+    int size();
+    List<K> keySet();
+    List<V> getAllInventory();
+    // Visits every entry in place, without copying keys or values into a list
+    void forEach(BiConsumer<? super K, ? super V> action);
+}
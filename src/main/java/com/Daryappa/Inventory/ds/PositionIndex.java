@@ -0,0 +1,117 @@
+package com.Daryappa.Inventory.ds;
+
+// Open addressing map from an element to its int slot in a heap.
+// Same layout as HashTable but with a primitive value array, so moving an
+// element during a sift never boxes its position.
+final class PositionIndex<K> {
+    private static final float LOAD_FACTOR = 0.7f;
+
+    private Object[] keys;
+    private int[] positions;
+    private int[] hashes;
+    private int size;
+    private int resizeAt;
+
+    PositionIndex(int expectedSize) {
+        int capacity = HashTable.DFAULT_SIZE;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        positions = new int[capacity];
+        hashes = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int findSlot(Object key, int hash) {
+        int mask = keys.length - 1;
+        int index = hash & mask;
+        Object k;
+        while ((k = keys[index]) != null) {
+            if (hashes[index] == hash && (k == key || k.equals(key))) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Returns the position of key, or -1 if absent
+    int get(Object key) {
+        int slot = findSlot(key, HashTable.mix(key));
+        return slot < 0 ? -1 : positions[slot];
+    }
+
+    void put(Object key, int position) {
+        int hash = HashTable.mix(key);
+        int mask = keys.length - 1;
+        int index = hash & mask;
+        Object k;
+        while ((k = keys[index]) != null) {
+            if (hashes[index] == hash && (k == key || k.equals(key))) {
+                positions[index] = position;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        positions[index] = position;
+        hashes[index] = hash;
+        if (++size > resizeAt) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        Object[] oldKeys = keys;
+        int[] oldPositions = positions;
+        int[] oldHashes = hashes;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) continue;
+            int index = oldHashes[i] & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = oldKeys[i];
+            positions[index] = oldPositions[i];
+            hashes[index] = oldHashes[i];
+        }
+    }
+
+    void remove(Object key) {
+        int gap = findSlot(key, HashTable.mix(key));
+        if (gap < 0) return;
+        int mask = keys.length - 1;
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (keys[index] == null) break;
+            int home = hashes[index] & mask;
+            boolean movable = (gap <= index) ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                keys[gap] = keys[index];
+                positions[gap] = positions[index];
+                hashes[gap] = hashes[index];
+                gap = index;
+            }
+        }
+        keys[gap] = null;
+        hashes[gap] = 0;
+        size--;
+    }
+
+    void clear(int expectedSize) {
+        int capacity = HashTable.DFAULT_SIZE;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+        size = 0;
+    }
+}
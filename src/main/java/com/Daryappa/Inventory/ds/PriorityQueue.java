@@ -1,86 +1,241 @@
 package com.Daryappa.Inventory.ds;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.ToIntFunction;
 
+// Indexed 4-ary min-heap. Items and their int priorities sit in two flat arrays,
+// and a position index lets an item's priority be changed or the item removed in O(log N).
+// Each item can be in the heap at most once (by equals()).
 public class PriorityQueue<T> {
-    private static class Node<T>{
-        T item;
-        int priority;
-        Node(T item, int priority){
-            this.item= item;
-            this.priority=priority;
-        }
+    private static final int ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] items;
+    private int[] priorities;
+    private int size;
+    private final PositionIndex<T> positions;
+
+    public PriorityQueue(){
+        this(DEFAULT_CAPACITY);
     }
+
+    public PriorityQueue(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.items = new Object[capacity];
+        this.priorities = new int[capacity];
+        this.positions = new PositionIndex<>(capacity);
+    }
+
     public boolean isEmpty(){
-        return heap.isEmpty();
+        return size == 0;
     }
-    private List<Node<T>> heap;
-    public PriorityQueue(){
-        this.heap= new ArrayList<>();
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(T item) {
+        return positions.get(item) >= 0;
     }
+
+    // Adds the item, or changes its priority if it is already queued
     public void add(T item, int priority){
-        Node<T> newNode= new Node<>(item,priority);
-        heap.add(newNode);
-        heapifyUp(heap.size()-1);
+        int pos = positions.get(item);
+        if (pos >= 0) {
+            changePriority(pos, priority);
+            return;
+        }
+        ensureCapacity(size + 1);
+        items[size] = item;
+        priorities[size] = priority;
+        positions.put(item, size);
+        heapifyUp(size++);
+    }
+
+    // Changes the priority of a queued item; returns false if it is not in the heap
+    public boolean update(T item, int priority) {
+        int pos = positions.get(item);
+        if (pos < 0) return false;
+        changePriority(pos, priority);
+        return true;
+    }
+
+    private void changePriority(int pos, int priority) {
+        int old = priorities[pos];
+        priorities[pos] = priority;
+        if (priority < old) {
+            heapifyUp(pos);
+        } else if (priority > old) {
+            heapifyDown(pos);
+        }
+    }
+
+    public boolean remove(T item) {
+        int pos = positions.get(item);
+        if (pos < 0) return false;
+        removeAt(pos);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return size == 0 ? null : (T) items[0];
     }
 
     public T poll() {
-        if (heap.isEmpty()) return null;
+        if (size == 0) return null;
+        T result = peek();
+        removeAt(0);
+        return result;
+    }
 
-        T result = heap.get(0).item;
-        Node<T> last = heap.remove(heap.size() - 1);
-        if (!heap.isEmpty()) {
-            heap.set(0, last);
-            heapifyDown(0);
+    @SuppressWarnings("unchecked")
+    private void removeAt(int pos) {
+        positions.remove(items[pos]);
+        int last = --size;
+        if (pos != last) {
+            move(last, pos);
+            items[last] = null;
+            // the moved item may need to go either way
+            int parent = (pos - 1) / ARITY;
+            if (pos > 0 && priorities[pos] < priorities[parent]) {
+                heapifyUp(pos);
+            } else {
+                heapifyDown(pos);
+            }
+        } else {
+            items[last] = null;
+        }
+    }
+
+    // The k lowest-priority items in order, without modifying the heap: O(K log K)
+    @SuppressWarnings("unchecked")
+    public List<T> peekTop(int k) {
+        int limit = Math.min(k, size);
+        List<T> result = new ArrayList<>(Math.max(limit, 0));
+        if (limit <= 0) return result;
+        // frontier of heap positions, itself a small binary heap ordered by priority
+        int[] frontier = new int[limit * (ARITY - 1) + 1];
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+        while (result.size() < limit) {
+            int pos = frontier[0];
+            frontier[0] = frontier[--frontierSize];
+            siftFrontierDown(frontier, frontierSize);
+            result.add((T) items[pos]);
+            int first = ARITY * pos + 1;
+            for (int c = first; c < first + ARITY && c < size; c++) {
+                frontier[frontierSize] = c;
+                siftFrontierUp(frontier, frontierSize++);
+            }
         }
         return result;
     }
-    
-    public void heapifyUp(int index){
-        while(index>0){
-            int parentIdx= (index-1)/2;
-            if(heap.get(index).priority>= heap.get(parentIdx).priority) break;
 
-            Node<T> temp = heap.get(index);
-            heap.set(index, heap.get(parentIdx));
-            heap.set(parentIdx, temp);
+    private void siftFrontierUp(int[] frontier, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (priorities[frontier[i]] >= priorities[frontier[parent]]) break;
+            int tmp = frontier[i];
+            frontier[i] = frontier[parent];
+            frontier[parent] = tmp;
+            i = parent;
+        }
+    }
 
-            index=parentIdx;
+    private void siftFrontierDown(int[] frontier, int n) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= n) break;
+            int smallest = left;
+            if (left + 1 < n && priorities[frontier[left + 1]] < priorities[frontier[left]]) smallest = left + 1;
+            if (priorities[frontier[i]] <= priorities[frontier[smallest]]) break;
+            int tmp = frontier[i];
+            frontier[i] = frontier[smallest];
+            frontier[smallest] = tmp;
+            i = smallest;
         }
     }
-    public void heapify(List<T> items, List<Integer> priorities) {
-        heap.clear(); // Clear existing heap
-        for (int i = 0; i < items.size(); i++) {
-            heap.add(new Node<>(items.get(i), priorities.get(i)));
+
+    // Replaces the heap contents with items, reading each priority once; O(N)
+    public void heapify(List<T> items, ToIntFunction<? super T> priorityOf) {
+        clear(); // Clear existing heap
+        ensureCapacity(items.size());
+        for (T item : items) {
+            int pos = positions.get(item);
+            if (pos >= 0) {
+                priorities[pos] = priorityOf.applyAsInt(item);
+                continue;
+            }
+            this.items[size] = item;
+            this.priorities[size] = priorityOf.applyAsInt(item);
+            positions.put(item, size++);
         }
 
-        // Start heapifyDown from the last parent node to root
-        for (int i = (heap.size() / 2) - 1; i >= 0; i--) {
+        // Start heapifyDown from the last parent node to root (none when empty; (0 - 2) / ARITY rounds to 0)
+        for (int i = size > 0 ? (size - 2) / ARITY : -1; i >= 0; i--) {
             heapifyDown(i);
         }
     }
 
-    private void heapifyDown(int index){
-        int size = heap.size();
-        while(index<size){
-            int left= 2*index+1;
-            int right = 2*index+2;
-            int smallest= index;
-            if(left<size && heap.get(left).priority < heap.get(smallest).priority){
-                smallest=left;
-            }
-            if(right<size && heap.get(right).priority < heap.get(smallest).priority){
-                smallest=right;
-            }
-            if (smallest == index) break;
-            Node<T> temp = heap.get(index);
-            heap.set(index, heap.get(smallest));
-            heap.set(smallest,temp);
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        positions.clear(items.length);
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= items.length) return;
+        int capacity = Math.max(needed, items.length + (items.length >> 1) + 1);
+        items = Arrays.copyOf(items, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void move(int from, int to) {
+        items[to] = items[from];
+        priorities[to] = priorities[from];
+        positions.put((T) items[to], to);
+    }
 
-            index=smallest;
+    // hole-based sifts: the moving item is written once at its final slot
+    @SuppressWarnings("unchecked")
+    private void heapifyUp(int index){
+        Object item = items[index];
+        int priority = priorities[index];
+        while(index>0){
+            int parentIdx= (index-1)/ARITY;
+            if(priority >= priorities[parentIdx]) break;
+            move(parentIdx, index);
+            index=parentIdx;
+        }
+        items[index] = item;
+        priorities[index] = priority;
+        positions.put((T) item, index);
+    }
 
+    @SuppressWarnings("unchecked")
+    private void heapifyDown(int index){
+        Object item = items[index];
+        int priority = priorities[index];
+        while (true) {
+            int first = ARITY * index + 1;
+            if (first >= size) break;
+            int smallest = first;
+            int last = Math.min(first + ARITY, size);
+            for (int c = first + 1; c < last; c++) {
+                if (priorities[c] < priorities[smallest]) smallest = c;
+            }
+            if (priorities[smallest] >= priority) break;
+            move(smallest, index);
+            index = smallest;
         }
+        items[index] = item;
+        priorities[index] = priority;
+        positions.put((T) item, index);
     }
 
 }
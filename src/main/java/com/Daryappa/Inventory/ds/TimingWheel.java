@@ -0,0 +1,229 @@
+package com.Daryappa.Inventory.ds;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Hierarchical timing wheel over whole days (epoch day numbers).
+// Level 0 has one slot per day for the next 64 days, level 1 one slot per 64-day block
+// for the next 4096 days, level 2 one slot per 4096-day block beyond that, and anything
+// further out waits in an overflow list. Advancing a day touches one level 0 slot and,
+// on block boundaries, cascades one higher-level slot down. Keys already past their
+// day are kept in an expired list until cancelled or rescheduled.
+public class TimingWheel<K> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 3;
+    private static final int OVERFLOW = LEVELS;
+    private static final int EXPIRED = LEVELS + 1;
+
+    private static final class Node<K> {
+        final K key;
+        long day;
+        Node<K> prev;
+        Node<K> next;
+        int level;
+        int slot;
+
+        Node(K key, long day) {
+            this.key = key;
+            this.day = day;
+        }
+    }
+
+    // doubly linked list heads per level and slot, plus overflow and expired lists
+    private final Node<K>[][] wheels;
+    private final Node<K>[] overflow;
+    private final Node<K>[] expired;
+    private HashTable<K, Node<K>> nodes = new HashTable<>();
+    private long currentDay;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long currentDay) {
+        this.currentDay = currentDay;
+        this.wheels = (Node<K>[][]) new Node<?>[LEVELS][SLOTS];
+        this.overflow = (Node<K>[]) new Node<?>[1];
+        this.expired = (Node<K>[]) new Node<?>[1];
+    }
+
+    public long currentDay() {
+        return currentDay;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    // Schedules key for the given day, replacing any earlier schedule
+    public void schedule(K key, long day) {
+        Node<K> node = nodes.get(key);
+        if (node == null) {
+            node = new Node<>(key, day);
+            nodes.put(key, node);
+        } else {
+            unlink(node);
+            node.day = day;
+        }
+        place(node);
+    }
+
+    public boolean cancel(K key) {
+        Node<K> node = nodes.get(key);
+        if (node == null) return false;
+        unlink(node);
+        nodes.remove(key);
+        return true;
+    }
+
+    public void clear() {
+        for (Node<K>[] level : wheels) {
+            Arrays.fill(level, null);
+        }
+        overflow[0] = null;
+        expired[0] = null;
+        nodes = new HashTable<>();
+    }
+
+    // Moves the wheel forward one day at a time, expiring and cascading slots on the way
+    public void advanceTo(long day) {
+        while (currentDay < day) {
+            // everything due today becomes expired once the day is over
+            int todaySlot = (int) (currentDay & SLOT_MASK);
+            Node<K> due = wheels[0][todaySlot];
+            wheels[0][todaySlot] = null;
+            moveAll(due, true);
+            currentDay++;
+            if ((currentDay & SLOT_MASK) == 0) {
+                cascade();
+            }
+        }
+    }
+
+    private void cascade() {
+        // higher levels first so their keys can land in the level 1 slot cascaded next
+        if ((currentDay & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            Node<K> head = overflow[0];
+            overflow[0] = null;
+            moveAll(head, false);
+        }
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            long blockMask = (1L << (SLOT_BITS * level)) - 1;
+            if ((currentDay & blockMask) != 0) continue;
+            int slot = (int) ((currentDay >> (SLOT_BITS * level)) & SLOT_MASK);
+            Node<K> head = wheels[level][slot];
+            wheels[level][slot] = null;
+            moveAll(head, false);
+        }
+    }
+
+    private void moveAll(Node<K> head, boolean toExpired) {
+        while (head != null) {
+            Node<K> next = head.next;
+            head.prev = head.next = null;
+            if (toExpired) {
+                push(expired, head, EXPIRED, 0);
+            } else {
+                place(head);
+            }
+            head = next;
+        }
+    }
+
+    private void place(Node<K> node) {
+        long delta = node.day - currentDay;
+        if (delta < 0) {
+            push(expired, node, EXPIRED, 0);
+            return;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < (1L << (SLOT_BITS * (level + 1)))) {
+                int slot = (int) ((node.day >> (SLOT_BITS * level)) & SLOT_MASK);
+                push(wheels[level], node, level, slot);
+                return;
+            }
+        }
+        push(overflow, node, OVERFLOW, 0);
+    }
+
+    private void push(Node<K>[] heads, Node<K> node, int level, int slot) {
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = heads[slot];
+        if (heads[slot] != null) heads[slot].prev = node;
+        heads[slot] = node;
+    }
+
+    private void unlink(Node<K> node) {
+        Node<K>[] heads = switch (node.level) {
+            case OVERFLOW -> overflow;
+            case EXPIRED -> expired;
+            default -> wheels[node.level];
+        };
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            heads[node.slot] = node.next;
+        }
+        if (node.next != null) node.next.prev = node.prev;
+        node.prev = node.next = null;
+    }
+
+    // Keys due on or before lastDay, earliest day first, at most limit of them.
+    // Buckets are visited in order of the earliest day they can hold; a key is emitted
+    // once no unread bucket can hold an earlier day, so only the leading buckets are read.
+    public List<K> dueBy(long lastDay, int limit) {
+        List<K> result = new ArrayList<>();
+        if (limit <= 0) return result;
+
+        List<long[]> buckets = new ArrayList<>(); // {lowest possible day, level, slot}
+        if (expired[0] != null) buckets.add(new long[] {Long.MIN_VALUE, EXPIRED, 0});
+        for (long day = currentDay; day < currentDay + SLOTS; day++) {
+            int slot = (int) (day & SLOT_MASK);
+            if (wheels[0][slot] != null) buckets.add(new long[] {day, 0, slot});
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            long firstBlock = (currentDay >> shift) + 1;
+            for (long block = firstBlock; block <= firstBlock + SLOT_MASK; block++) {
+                int slot = (int) (block & SLOT_MASK);
+                if (wheels[level][slot] != null) buckets.add(new long[] {block << shift, level, slot});
+            }
+        }
+        if (overflow[0] != null) {
+            // overflow is re-placed on every top-level boundary, always with a full top-level span to go
+            long span = 1L << (SLOT_BITS * LEVELS);
+            buckets.add(new long[] {(currentDay & -span) + span, OVERFLOW, 0});
+        }
+        buckets.sort((x, y) -> Long.compare(x[0], y[0]));
+
+        PriorityQueue<Node<K>> pending = new PriorityQueue<>();
+        for (long[] bucket : buckets) {
+            if (bucket[0] > lastDay) break;
+            if (drain(pending, bucket[0], limit, result)) return result;
+            for (Node<K> n = head((int) bucket[1], (int) bucket[2]); n != null; n = n.next) {
+                if (n.day <= lastDay) pending.add(n, (int) n.day);
+            }
+        }
+        drain(pending, Long.MAX_VALUE, limit, result);
+        return result;
+    }
+
+    private Node<K> head(int level, int slot) {
+        return switch (level) {
+            case OVERFLOW -> overflow[0];
+            case EXPIRED -> expired[0];
+            default -> wheels[level][slot];
+        };
+    }
+
+    // Emits pending keys due before the given day; returns true once limit is reached
+    private boolean drain(PriorityQueue<Node<K>> pending, long before, int limit, List<K> result) {
+        while (!pending.isEmpty() && pending.peek().day < before) {
+            result.add(pending.poll().key);
+            if (result.size() >= limit) return true;
+        }
+        return false;
+    }
+}
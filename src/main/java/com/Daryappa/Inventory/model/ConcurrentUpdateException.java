@@ -0,0 +1,10 @@
+package com.Daryappa.Inventory.model;
+
+// A row kept changing under a compare-and-set update until the retries ran out
+public class ConcurrentUpdateException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
@@ -1,17 +1,25 @@
 package com.Daryappa.Inventory.model;
 
+import java.time.LocalDate;
+
 public class InventoryRecord {
     private final String sku;  // Stock Keeping Unit - unique ID
     private String name;
-    private int quantity;
+    private volatile int quantity;  // volatile: read outside the table locks by scans
     private int reorderThreshold;
     private int shelfLifeDays;
+    private LocalDate receivedDate;  // when the stock on the shelf was received, expiry counts from here
+    private long version;  // database row version this copy was read at, for compare-and-set updates
     public InventoryRecord(String sku, String name, int quantity, int reorderThreshold, int shelfLifeDays) {
+        this(sku, name, quantity, reorderThreshold, shelfLifeDays, LocalDate.now());
+    }
+    public InventoryRecord(String sku, String name, int quantity, int reorderThreshold, int shelfLifeDays, LocalDate receivedDate) {
         this.sku = sku;
         this.name = name;
         this.quantity = quantity;
         this.reorderThreshold = reorderThreshold;
         this.shelfLifeDays = shelfLifeDays;
+        this.receivedDate = receivedDate;
     }
     public String getSku() {
         return sku;
@@ -40,6 +48,21 @@ public class InventoryRecord {
     public void setShelfLifeDays(int shelfLifeDays) {
         this.shelfLifeDays = shelfLifeDays;
     }
+    public LocalDate getReceivedDate() {
+        return receivedDate;
+    }
+    public void setReceivedDate(LocalDate receivedDate) {
+        this.receivedDate = receivedDate;
+    }
+    public long getVersion() {
+        return version;
+    }
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    public LocalDate getExpiryDate() {
+        return receivedDate.plusDays(shelfLifeDays);
+    }
     @Override
     public String toString() {
         return String.format(
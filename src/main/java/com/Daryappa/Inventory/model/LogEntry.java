@@ -0,0 +1,93 @@
+package com.Daryappa.Inventory.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// One row of the transaction log, stamped with the date and time it was recorded
+public class LogEntry {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+    
+    private final long id;  // transaction_log.id, 0 until stored
+    private LocalDateTime eventTime;  // parsed from date and time when not given
+    private final String date;  // dd-MM-yyyy
+    private final String time;  // HH:mm:ss
+    private final String action;
+    private final String sku;
+    private final int quantity;
+    private final String itemName;
+
+    public LogEntry(String date, String time, String action, String sku, int quantity, String itemName) {
+        this(0, null, date, time, action, sku, quantity, itemName);
+    }
+
+    public LogEntry(LocalDateTime eventTime, String action, String sku, int quantity, String itemName) {
+        this(0, eventTime, eventTime.format(DATE_FORMAT), eventTime.format(TIME_FORMAT), action, sku, quantity, itemName);
+    }
+
+    public LogEntry(long id, LocalDateTime eventTime, String date, String time, String action, String sku, int quantity, String itemName) {
+        this.id = id;
+        this.eventTime = eventTime;
+        this.date = date;
+        this.time = time;
+        this.action = action;
+        this.sku = sku;
+        this.quantity = quantity;
+        this.itemName = itemName;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    // null if the entry has no parseable date and time
+    public LocalDateTime getEventTime() {
+        if (eventTime == null && date != null && time != null) {
+            try {
+                eventTime = LocalDateTime.of(
+                        LocalDate.parse(date, DATE_FORMAT),
+                        LocalTime.parse(time, TIME_FORMAT));
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return eventTime;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public String getTime() {
+        return time;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    // Same column order as the log files and exports: date, time, action, sku, quantity, item name
+    public String[] toRow() {
+        return new String[] {date, time, action, sku, String.valueOf(quantity), itemName};
+    }
+
+    @Override
+    public String toString() {
+        return String.join(",", toRow());
+    }
+}
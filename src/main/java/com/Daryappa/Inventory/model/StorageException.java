@@ -0,0 +1,10 @@
+package com.Daryappa.Inventory.model;
+
+// The database failed the operation; nothing is known about the item itself
+public class StorageException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public StorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,448 @@
+package com.Daryappa.Inventory.server;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.Daryappa.Inventory.db.DatabaseConfig;
+import com.Daryappa.Inventory.db.DatabaseInitializer;
+import com.Daryappa.Inventory.model.ConcurrentUpdateException;
+import com.Daryappa.Inventory.model.InsufficientStockException;
+import com.Daryappa.Inventory.model.InventoryRecord;
+import com.Daryappa.Inventory.model.ItemNotFoundException;
+import com.Daryappa.Inventory.model.StorageException;
+import com.Daryappa.Inventory.service.IInventoryManager;
+import com.Daryappa.Inventory.service.InventoryManagerDB;
+import com.Daryappa.Inventory.service.InventoryStore;
+import com.Daryappa.Inventory.utils.LogReader;
+import com.Daryappa.Inventory.utils.LogReaderDB;
+import com.Daryappa.Inventory.utils.TransactionLogger;
+import com.Daryappa.Inventory.utils.TransactionLoggerDB;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+// Server mode: the CLI operations as a JSON API on the JDK HttpServer, for many clients
+// at once. Every request runs on its own virtual thread, so a request waiting on the
+// database or on a write-ahead log fsync costs no platform thread.
+//
+//   POST /items            {"sku","name","quantity","reorderThreshold","shelfLifeDays"}
+//   POST /sell             {"sku","quantity"}
+//   POST /receive          {"sku","quantity"}
+//   POST /orders/sell      {"SKU":quantity, ...}   all lines or none
+//   POST /orders/receive   {"SKU":quantity, ...}   all lines or none
+//   GET  /low-stock
+//   GET  /suggest/restock?count=N
+//   GET  /suggest/expiry?count=N
+//   GET  /expiring?days=N
+//   GET  /export?action=SOLD  or  /export?date=dd-MM-yyyy
+//
+// Usage: InventoryServer [file|db]
+// System properties:
+//   inventory.server.port          listening port (default 8080)
+//   inventory.server.backlog       pending connections the OS queues (default 1024)
+//   inventory.server.shutdownSec   seconds to let in-flight requests finish on shutdown (default 10)
+public class InventoryServer {
+    private static final String LOG_FILE = "log.csv";
+
+    private final IInventoryManager manager;
+    private final boolean database;
+    private HttpServer server;
+    private ExecutorService executor;
+    // requests being handled; once stopping is set new ones are turned away with 503
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean stopping;
+    // whether a transaction logger was used, so shutdown only flushes one that exists
+    private volatile boolean logged;
+
+    // Writes a response body once the status is known
+    @FunctionalInterface
+    private interface Body {
+        void write(Writer out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Body handle(HttpExchange exchange) throws IOException;
+    }
+
+    // database selects the transaction log the operations are recorded in, as in the CLIs
+    public InventoryServer(IInventoryManager manager, boolean database) {
+        this.manager = manager;
+        this.database = database;
+    }
+
+    public static void main(String[] args) {
+        String mode = args.length > 0 ? args[0].toLowerCase() : "file";
+        if (!mode.equals("file") && !mode.equals("db")) {
+            System.out.println("Usage: InventoryServer [file|db]");
+            return;
+        }
+        int port = Integer.getInteger("inventory.server.port", 8080);
+
+        IInventoryManager manager;
+        InventoryStore store = null;
+        if (mode.equals("db")) {
+            System.out.println("🔧 Initializing database...");
+            DatabaseInitializer.initializeDatabase();
+            manager = new InventoryManagerDB();
+        } else {
+            store = new InventoryStore("inventory.bin", "inventory.csv");
+            try {
+                manager = store.open();
+            } catch (IOException e) {
+                System.out.println("❌ Error: could not recover the inventory: " + e.getMessage());
+                return;
+            }
+        }
+
+        InventoryServer server = new InventoryServer(manager, mode.equals("db"));
+        try {
+            server.start(port);
+        } catch (IOException e) {
+            System.out.println("❌ Error: could not listen on port " + port + ": " + e.getMessage());
+            return;
+        }
+
+        InventoryStore fileStore = store;
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            if (fileStore != null) {
+                try {
+                    fileStore.close();
+                } catch (IOException e) {
+                    System.err.println("Error saving inventory: " + e.getMessage());
+                }
+                if (server.logged) {
+                    TransactionLogger.flush();
+                }
+            } else {
+                if (server.logged) {
+                    // the logger's own hook may be closing it too, flush waits for the writer either way
+                    TransactionLoggerDB.flush();
+                    TransactionLoggerDB.shutdown();
+                }
+                DatabaseConfig.close();
+            }
+            System.out.println("👋 Inventory server stopped.");
+        }, "inventory-server-shutdown"));
+        System.out.println("🌐 Inventory server listening on port " + port + " (" + mode + " mode)");
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), Integer.getInteger("inventory.server.backlog", 1024));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+
+        server.createContext("/items", endpoint("POST", 201, this::addItem));
+        server.createContext("/sell", endpoint("POST", 200, this::sell));
+        server.createContext("/receive", endpoint("POST", 200, this::receive));
+        server.createContext("/orders/sell", endpoint("POST", 200, this::sellOrder));
+        server.createContext("/orders/receive", endpoint("POST", 200, this::receiveOrder));
+        server.createContext("/low-stock", endpoint("GET", 200, exchange -> items(manager.listLowStock())));
+        server.createContext("/suggest/restock", endpoint("GET", 200,
+                exchange -> items(manager.suggestRestocks(intParam(exchange, "count", 10)))));
+        server.createContext("/suggest/expiry", endpoint("GET", 200,
+                exchange -> items(manager.suggestExpiringSoon(intParam(exchange, "count", 10)))));
+        server.createContext("/expiring", endpoint("GET", 200,
+                exchange -> items(manager.listExpiringWithin(intParam(exchange, "days", 7)))));
+        server.createContext("/export", endpoint("GET", 200, this::export));
+        server.start();
+    }
+
+    // Turns new requests away, gives in-flight ones up to inventory.server.shutdownSec to
+    // finish, then closes the listener and waits for the request threads. The wait is done
+    // here rather than by HttpServer.stop(delay), which can sit out the whole delay even
+    // when nothing is running.
+    public void stop() {
+        if (server == null) {
+            return;
+        }
+        stopping = true;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(Integer.getInteger("inventory.server.shutdownSec", 10));
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        server.stop(0);
+        executor.close();
+        server = null;
+    }
+
+    private Body addItem(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String sku = string(body, "sku");
+        String name = string(body, "name");
+        int qty = integer(body, "quantity", 0);
+        int threshold = integer(body, "reorderThreshold", 0);
+        int shelfLife = integer(body, "shelfLifeDays", 0);
+
+        InventoryRecord item = new InventoryRecord(sku, name, qty, threshold, shelfLife);
+        manager.addItem(item);
+        log("ADDED", sku, qty, name);
+        return out -> Json.writeItem(out, item);
+    }
+
+    private Body sell(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String sku = string(body, "sku");
+        int qty = integer(body, "quantity", 1);
+
+        manager.sellItem(sku, qty);
+        log("SOLD", sku, qty, null);
+        return ok("Item sold successfully.");
+    }
+
+    private Body receive(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        String sku = string(body, "sku");
+        int qty = integer(body, "quantity", 1);
+
+        manager.receiveStock(sku, qty);
+        log("RESTOCKED", sku, qty, null);
+        return ok("Stock updated successfully.");
+    }
+
+    private Body sellOrder(HttpExchange exchange) throws IOException {
+        Map<String, Integer> order = readLines(exchange);
+        manager.sellItems(order);
+        logAll("SOLD", order);
+        return ok("Order of " + order.size() + " items sold successfully.");
+    }
+
+    private Body receiveOrder(HttpExchange exchange) throws IOException {
+        Map<String, Integer> delivery = readLines(exchange);
+        manager.receiveItems(delivery);
+        logAll("RESTOCKED", delivery);
+        return ok("Stock updated for " + delivery.size() + " items.");
+    }
+
+    // The matching transaction log entries; dd-MM-yyyy dates as written by the loggers.
+    // The rows are read into a list before the response starts, so a failed read can
+    // still be answered with an error status; only the JSON encoding is streamed.
+    private Body export(HttpExchange exchange) {
+        Map<String, String> query = query(exchange);
+        List<String[]> rows;
+        if (query.containsKey("action")) {
+            String action = query.get("action").trim().toUpperCase();
+            rows = database ? LogReaderDB.filterByAction(action) : LogReader.filterByAction(LOG_FILE, action);
+        } else if (query.containsKey("date")) {
+            String date = query.get("date").trim();
+            rows = database ? LogReaderDB.filterByDate(date) : LogReader.filterByDate(LOG_FILE, date);
+        } else {
+            throw new IllegalArgumentException("Pass action=ADDED|SOLD|RESTOCKED or date=dd-MM-yyyy");
+        }
+        return out -> {
+            out.write("{\"count\":" + rows.size() + ",\"entries\":[");
+            for (int i = 0; i < rows.size(); i++) {
+                String[] row = rows.get(i);
+                if (i > 0) out.write(',');
+                out.write("{\"date\":");
+                Json.writeString(out, column(row, 0));
+                out.write(",\"time\":");
+                Json.writeString(out, column(row, 1));
+                out.write(",\"action\":");
+                Json.writeString(out, column(row, 2));
+                out.write(",\"sku\":");
+                Json.writeString(out, column(row, 3));
+                out.write(",\"quantity\":");
+                out.write(quantity(column(row, 4)));
+                out.write(",\"itemName\":");
+                String name = column(row, 5);
+                Json.writeString(out, name == null || name.isEmpty() || name.equals("null") ? null : name);
+                out.write('}');
+            }
+            out.write("]}");
+        };
+    }
+
+    // Method and exact-path checks, then maps the domain exceptions onto HTTP statuses
+    private HttpHandler endpoint(String method, int successStatus, Endpoint endpoint) {
+        return exchange -> {
+            inFlight.incrementAndGet();
+            try (exchange) {
+                int status = successStatus;
+                Body body;
+                if (stopping) {
+                    exchange.getResponseHeaders().set("Connection", "close");
+                    status = 503;
+                    body = error("Server is shutting down");
+                } else if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+                    status = 404;
+                    body = error("No such endpoint");
+                } else if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    status = 405;
+                    body = error("Use " + method);
+                } else {
+                    try {
+                        body = endpoint.handle(exchange);
+                    } catch (IllegalArgumentException e) {
+                        status = 400;
+                        body = error(e.getMessage());
+                    } catch (ItemNotFoundException e) {
+                        status = 404;
+                        body = error(e.getMessage());
+                    } catch (InsufficientStockException | ConcurrentUpdateException e) {
+                        status = 409;
+                        body = error(e.getMessage());
+                    } catch (StorageException e) {
+                        status = 503;
+                        body = error(e.getMessage());
+                    } catch (RuntimeException e) {
+                        System.err.println("Error handling " + exchange.getRequestURI() + ": " + e);
+                        status = 500;
+                        body = error("Internal error");
+                    }
+                }
+                respond(exchange, status, body);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    private static void respond(HttpExchange exchange, int status, Body body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        // length 0: chunked, so the JSON goes out as it is encoded instead of being built into one string first
+        exchange.sendResponseHeaders(status, 0);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8))) {
+            body.write(out);
+        }
+    }
+
+    private static Body ok(String message) {
+        return out -> {
+            out.write("{\"status\":");
+            Json.writeString(out, message);
+            out.write('}');
+        };
+    }
+
+    private static Body error(String message) {
+        return out -> {
+            out.write("{\"error\":");
+            Json.writeString(out, message);
+            out.write('}');
+        };
+    }
+
+    private static Body items(List<InventoryRecord> items) {
+        return out -> {
+            out.write('[');
+            for (int i = 0; i < items.size(); i++) {
+                if (i > 0) out.write(',');
+                Json.writeItem(out, items.get(i));
+            }
+            out.write(']');
+        };
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        String text = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        return Json.parseObject(text);
+    }
+
+    // {"A1":3,"B2":5}, every quantity positive
+    private static Map<String, Integer> readLines(HttpExchange exchange) throws IOException {
+        Map<String, Object> body = readBody(exchange);
+        if (body.isEmpty()) {
+            throw new IllegalArgumentException("An order needs at least one SKU");
+        }
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        for (String sku : body.keySet()) {
+            if (sku.isBlank()) {
+                throw new IllegalArgumentException("Blank SKU in order");
+            }
+            lines.put(sku, integer(body, sku, 1));
+        }
+        return lines;
+    }
+
+    private static String string(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof String value) || value.isBlank()) {
+            throw new IllegalArgumentException("\"" + field + "\" must be a non-empty string");
+        }
+        return value;
+    }
+
+    private static int integer(Map<String, Object> body, String field, int min) {
+        if (!(body.get(field) instanceof Long value) || value < min || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("\"" + field + "\" must be a whole number of at least " + min);
+        }
+        return value.intValue();
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int intParam(HttpExchange exchange, String name, int fallback) {
+        String value = query(exchange).get(name);
+        if (value == null) {
+            return fallback;
+        }
+        int parsed = Integer.parseInt(value.trim());
+        if (parsed < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+        return parsed;
+    }
+
+    private static String column(String[] row, int index) {
+        return index < row.length ? row[index] : null;
+    }
+
+    private static String quantity(String value) {
+        try {
+            return Integer.toString(Integer.parseInt(value.trim()));
+        } catch (NullPointerException | NumberFormatException e) {
+            return "null";
+        }
+    }
+
+    private void log(String action, String sku, int qty, String name) {
+        logged = true;
+        if (database) {
+            TransactionLoggerDB.log(action, sku, qty, name);
+        } else {
+            TransactionLogger.log(action, sku, qty, name);
+        }
+    }
+
+    private void logAll(String action, Map<String, Integer> lines) {
+        logged = true;
+        if (database) {
+            TransactionLoggerDB.logAll(action, lines);
+        } else {
+            TransactionLogger.logAll(action, lines);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.Daryappa.Inventory.server;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+// Just enough JSON for the server: request bodies are flat objects whose values are
+// strings, integers, booleans or null, and responses are written straight to the
+// response stream. Malformed input is an IllegalArgumentException.
+final class Json {
+
+    private Json() {
+    }
+
+    // {"sku":"A1","quantity":3} -> {sku=A1, quantity=3}; numbers come back as Longs
+    static Map<String, Object> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, Object> object = parser.object();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("Unexpected content after the object");
+        }
+        return object;
+    }
+
+    static void writeString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    static void writeItem(Writer out, InventoryRecord item) throws IOException {
+        out.write("{\"sku\":");
+        writeString(out, item.getSku());
+        out.write(",\"name\":");
+        writeString(out, item.getName());
+        out.write(",\"quantity\":" + item.getQuantity());
+        out.write(",\"reorderThreshold\":" + item.getReorderThreshold());
+        out.write(",\"shelfLifeDays\":" + item.getShelfLifeDays());
+        out.write(",\"receivedDate\":");
+        writeString(out, String.valueOf(item.getReceivedDate()));
+        out.write(",\"expiryDate\":");
+        writeString(out, String.valueOf(item.getExpiryDate()));
+        out.write('}');
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            expect('{');
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                object.put(key, value());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return object;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+            }
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"') return string();
+            if (c == '-' || (c >= '0' && c <= '9')) return number();
+            if (text.startsWith("true", pos)) { pos += 4; return Boolean.TRUE; }
+            if (text.startsWith("false", pos)) { pos += 5; return Boolean.FALSE; }
+            if (text.startsWith("null", pos)) { pos += 4; return null; }
+            throw error("Expected a string, integer, boolean or null");
+        }
+
+        private Long number() {
+            int start = pos;
+            if (peek() == '-') pos++;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) pos++;
+            if (pos < text.length() && ".eE".indexOf(text.charAt(pos)) >= 0) {
+                throw error("Only whole numbers are accepted");
+            }
+            try {
+                return Long.parseLong(text.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("Bad number");
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append(escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw error("Bad \\u escape");
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Bad \\u escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Bad escape \\" + escaped);
+                }
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        private void expect(char c) {
+            if (next() != c) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) throw error("Unexpected end of input");
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid JSON at position " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.Daryappa.Inventory.service;
+
+import com.Daryappa.Inventory.db.DatabaseConfig;
+import com.Daryappa.Inventory.db.InventoryDAO;
+import com.Daryappa.Inventory.model.InventoryRecord;
+import com.Daryappa.Inventory.utils.InventoryCsvReader;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Imports an inventory CSV (the inventory.csv layout) into the database.
+// The calling thread parses the file and hands each row to the writer its SKU hashes to,
+// so every row of a SKU goes through the same connection in file order: a later row still
+// wins, and two connections never upsert the same row (and deadlock on it). Writers each
+// hold one pooled connection and upsert a batch per transaction, from a small bounded
+// queue of their own, so parsing never runs far ahead of the database.
+// The file is cut into rounds of about batchSize rows per writer. A round is committed once
+// every writer has committed its share, and rounds finish out of order, so the watermark
+// file (<csv>.import) records the byte offset below which every round is committed; after
+// a failure the next run starts there. Upserts are idempotent, so rows past the watermark
+// that did commit are simply written again.
+//
+// System properties:
+//   inventory.import.workers   writer threads/connections (default 4)
+//   inventory.import.batchSize rows per transaction (default 5000)
+public class BulkImporter {
+    private static final Batch END = new Batch(-1, 0, List.of());
+    private static final int PROGRESS_SECONDS = 5;
+    private static final int DEADLOCK_RETRIES = 3;
+
+    private final InventoryDAO dao;
+    private final Path csv;
+    private final Path watermarkFile;
+    private final int workers;
+    private final int batchSize;
+
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    // rounds by sequence number: batches still uncommitted, and rounds fully committed
+    // ahead of the watermark with their end offset; guarded by this
+    private final Map<Long, Integer> uncommitted = new HashMap<>();
+    private final Map<Long, Long> committedAhead = new HashMap<>();
+    private long nextSeq;
+    private long watermark;
+
+    private static final class Batch {
+        final long seq;
+        final long endOffset;
+        final List<InventoryRecord> records;
+
+        Batch(long seq, long endOffset, List<InventoryRecord> records) {
+            this.seq = seq;
+            this.endOffset = endOffset;
+            this.records = records;
+        }
+    }
+
+    public BulkImporter(InventoryDAO dao, Path csv) {
+        this.dao = dao;
+        this.csv = csv;
+        this.watermarkFile = csv.resolveSibling(csv.getFileName() + ".import");
+        this.workers = Math.max(1, Integer.getInteger("inventory.import.workers", 4));
+        this.batchSize = Math.max(1, Integer.getInteger("inventory.import.batchSize", 5000));
+    }
+
+    // Returns the number of rows written by this run; throws the first error a writer hit,
+    // with the watermark left at the last fully committed point
+    public long run() throws IOException, SQLException {
+        watermark = readWatermark();
+        if (watermark > 0) {
+            System.out.printf("⏩ Resuming import of %s at byte %,d of %,d.%n", csv, watermark, Files.size(csv));
+        }
+
+        List<BlockingQueue<Batch>> queues = new ArrayList<>(workers);
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(2);
+            queues.add(queue);
+            Thread thread = new Thread(() -> write(queue), "inventory-import-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+
+        long start = System.nanoTime();
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-import-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        progress.scheduleAtFixedRate(() -> report(start, false), PROGRESS_SECONDS, PROGRESS_SECONDS, TimeUnit.SECONDS);
+
+        long skipped = 0;
+        try (InventoryCsvReader reader = new InventoryCsvReader(csv, watermark)) {
+            long seq = 0;
+            List<List<InventoryRecord>> round = newRound();
+            int rows = 0;
+            InventoryRecord item;
+            while (failure.get() == null && (item = reader.next()) != null) {
+                round.get(Math.floorMod(item.getSku().hashCode(), workers)).add(item);
+                if (++rows == batchSize * workers) {
+                    putRound(queues, new Batch(seq++, reader.offset(), List.of()), round);
+                    round = newRound();
+                    rows = 0;
+                }
+            }
+            if (rows > 0 && failure.get() == null) {
+                putRound(queues, new Batch(seq, reader.offset(), List.of()), round);
+            }
+            skipped = reader.getSkippedCount();
+        } finally {
+            for (BlockingQueue<Batch> queue : queues) {
+                put(queue, END);
+            }
+            for (Thread thread : threads) {
+                join(thread);
+            }
+            progress.shutdownNow();
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof SQLException e) throw e;
+        if (error instanceof IOException e) throw e;
+        if (error instanceof RuntimeException e) throw e;
+        if (error instanceof Error e) throw e;
+
+        Files.deleteIfExists(watermarkFile);
+        report(start, true);
+        if (skipped > 0) {
+            System.out.printf("ℹ️ Skipped %,d header, blank or malformed lines.%n", skipped);
+        }
+        return imported.get();
+    }
+
+    private List<List<InventoryRecord>> newRound() {
+        List<List<InventoryRecord>> round = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            round.add(new ArrayList<>(batchSize));
+        }
+        return round;
+    }
+
+    // Hands each writer its share of the round; the count is registered first so an early
+    // commit cannot complete the round before the rest of it is queued
+    private void putRound(List<BlockingQueue<Batch>> queues, Batch marker, List<List<InventoryRecord>> round)
+            throws IOException {
+        int batches = 0;
+        for (List<InventoryRecord> records : round) {
+            if (!records.isEmpty()) batches++;
+        }
+        synchronized (this) {
+            uncommitted.put(marker.seq, batches);
+        }
+        for (int i = 0; i < workers; i++) {
+            if (!round.get(i).isEmpty()) {
+                put(queues.get(i), new Batch(marker.seq, marker.endOffset, round.get(i)));
+            }
+        }
+    }
+
+    // Writer thread: one connection for the whole run, one transaction per batch
+    private void write(BlockingQueue<Batch> queue) {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            Batch batch;
+            while ((batch = queue.take()) != END) {
+                if (failure.get() != null) continue;  // drain so the parser is never blocked
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        dao.saveItems(conn, batch.records);
+                        conn.commit();
+                        break;
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        // writers never share a row, but InnoDB gap locks can still deadlock
+                        // two inserts; the victim's batch was rolled back whole, so redo it
+                        if (!"40001".equals(e.getSQLState()) || attempt == DEADLOCK_RETRIES) {
+                            throw e;
+                        }
+                    }
+                }
+                imported.addAndGet(batch.records.size());
+                committed(batch);
+            }
+        } catch (SQLException | IOException | RuntimeException | Error e) {
+            // keep taking batches until the end marker so the parser can finish and stop
+            failure.compareAndSet(null, e);
+            drain(queue);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Advances the watermark over every round committed without a gap before it
+    private synchronized void committed(Batch batch) throws IOException {
+        int left = uncommitted.merge(batch.seq, -1, Integer::sum);
+        if (left > 0) {
+            return;
+        }
+        uncommitted.remove(batch.seq);
+        committedAhead.put(batch.seq, batch.endOffset);
+        Long end;
+        boolean advanced = false;
+        while ((end = committedAhead.remove(nextSeq)) != null) {
+            watermark = end;
+            nextSeq++;
+            advanced = true;
+        }
+        if (advanced) {
+            writeWatermark();
+        }
+    }
+
+    private void drain(BlockingQueue<Batch> queue) {
+        try {
+            while (queue.take() != END) {
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void report(long start, boolean done) {
+        long rows = imported.get();
+        double seconds = Math.max((System.nanoTime() - start) / 1e9, 0.001);
+        System.out.printf("%s %,d rows imported in %.1fs (%,.0f rows/s)%n",
+                done ? "✅" : "⏳", rows, seconds, rows / seconds);
+    }
+
+    // The offset is only trusted for the same file: its size is stored next to it
+    private long readWatermark() throws IOException {
+        if (!Files.exists(watermarkFile)) return 0;
+        String[] parts = Files.readString(watermarkFile, StandardCharsets.UTF_8).trim().split(" ");
+        try {
+            long offset = Long.parseLong(parts[0]);
+            long size = Long.parseLong(parts[1]);
+            return size == Files.size(csv) ? offset : 0;
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    private void writeWatermark() throws IOException {
+        Path tmp = watermarkFile.resolveSibling(watermarkFile.getFileName() + ".tmp");
+        Files.writeString(tmp, watermark + " " + Files.size(csv), StandardCharsets.UTF_8);
+        Files.move(tmp, watermarkFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void put(BlockingQueue<Batch> queue, Batch batch) throws IOException {
+        try {
+            queue.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        }
+    }
+
+    private static void join(Thread thread) throws IOException {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrupted");
+        }
+    }
+}
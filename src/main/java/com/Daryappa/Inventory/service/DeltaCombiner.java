@@ -0,0 +1,198 @@
+package com.Daryappa.Inventory.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import com.Daryappa.Inventory.db.CachedInventoryDAO;
+import com.Daryappa.Inventory.db.DatabaseConfig;
+import com.Daryappa.Inventory.model.InsufficientStockException;
+import com.Daryappa.Inventory.model.InventoryRecord;
+import com.Daryappa.Inventory.model.ItemNotFoundException;
+
+// Combines concurrent sells and receives of the same SKU into one statement, so a hot SKU
+// is not one row-locked UPDATE per sell. Each SKU has a queue of pending deltas and at most
+// one drainer at a time, which takes what is queued and applies the net change with one
+// conditional UPDATE (the receives counted first, then the sells). If the stock covers
+// every sell, that UPDATE matches and all callers succeed. If not, the row is locked and
+// read, sells are granted in arrival order while the stock lasts, and the granted total is
+// written in the same transaction; the others get InsufficientStockException.
+// A caller that finds the SKU idle drains its own batch, so an uncontended sell runs on the
+// caller's thread as before. While its statement is in flight the next callers queue up
+// and are drained together on a virtual thread, so the busier a SKU, the more deltas each
+// statement carries.
+//
+// System properties:
+//   inventory.combine.windowMicros  extra time a drainer waits for more deltas (default 0)
+//   inventory.combine.maxBatch      most deltas per statement (default 1000)
+final class DeltaCombiner {
+    private static final long WINDOW_NANOS =
+            TimeUnit.MICROSECONDS.toNanos(Long.getLong("inventory.combine.windowMicros", 0));
+    private static final int MAX_BATCH = Math.max(1, Integer.getInteger("inventory.combine.maxBatch", 1000));
+
+    private final CachedInventoryDAO dao;
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final ExecutorService drainers =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inventory-combiner-", 0).factory());
+
+    private static final class Delta {
+        final int qty;
+        final boolean sell;
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+        boolean granted;
+
+        Delta(int qty, boolean sell) {
+            this.qty = qty;
+            this.sell = sell;
+        }
+    }
+
+    private static final class Slot {
+        final ConcurrentLinkedQueue<Delta> pending = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    DeltaCombiner(CachedInventoryDAO dao) {
+        this.dao = dao;
+    }
+
+    // Both return once the delta is committed, or throw what applying it alone would have
+    void sell(String sku, int qty) throws SQLException {
+        submit(sku, new Delta(qty, true));
+    }
+
+    void receive(String sku, int qty) throws SQLException {
+        submit(sku, new Delta(qty, false));
+    }
+
+    private void submit(String sku, Delta delta) throws SQLException {
+        Slot slot = slots.computeIfAbsent(sku, key -> new Slot());
+        slot.pending.add(delta);
+        if (slot.draining.compareAndSet(false, true)) {
+            drain(sku, slot);
+        }
+        try {
+            delta.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException sql) throw sql;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
+    // Starts a drainer unless one is running; every drainer reschedules when it finishes
+    private void schedule(String sku, Slot slot) {
+        if (!slot.pending.isEmpty() && slot.draining.compareAndSet(false, true)) {
+            drainers.execute(() -> drain(sku, slot));
+        }
+    }
+
+    // Called with draining set; applies one batch, then hands anything left to a new drainer
+    private void drain(String sku, Slot slot) {
+        try {
+            if (WINDOW_NANOS > 0) {
+                LockSupport.parkNanos(WINDOW_NANOS);
+            }
+            List<Delta> batch = new ArrayList<>();
+            Delta delta;
+            while (batch.size() < MAX_BATCH && (delta = slot.pending.poll()) != null) {
+                batch.add(delta);
+            }
+            apply(sku, batch);
+        } finally {
+            // an idle SKU gives its slot up; a delta that still reaches this one is drained
+            // by the schedule below, the next caller starts a fresh slot
+            if (slot.pending.isEmpty()) {
+                slots.remove(sku, slot);
+            }
+            slot.draining.set(false);
+            schedule(sku, slot);
+        }
+    }
+
+    private void apply(String sku, List<Delta> batch) {
+        long received = 0;
+        long sold = 0;
+        for (Delta delta : batch) {
+            if (delta.sell) {
+                sold += delta.qty;
+            } else {
+                received += delta.qty;
+            }
+        }
+        try {
+            if (dao.adjustQuantityIfAvailable(sku, received, received - sold)) {
+                for (Delta delta : batch) {
+                    delta.result.complete(null);
+                }
+                return;
+            }
+            allocate(sku, batch, received);
+        } catch (SQLException | RuntimeException | Error e) {
+            // every caller in the batch is blocked on its future, so none may be left
+            // pending, whatever was thrown; futures already completed keep their result
+            for (Delta delta : batch) {
+                delta.result.completeExceptionally(e);
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    // The stock does not cover every sell, or the SKU is gone: decide per caller under the row lock
+    private void allocate(String sku, List<Delta> batch, long received) throws SQLException {
+        InventoryRecord item;
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                item = dao.lockItem(conn, sku);
+                if (item != null) {
+                    long available = item.getQuantity() + received;
+                    long net = received;
+                    for (Delta delta : batch) {
+                        delta.granted = !delta.sell || delta.qty <= available;
+                        if (delta.sell && delta.granted) {
+                            available -= delta.qty;
+                            net -= delta.qty;
+                        }
+                    }
+                    if (received != 0 || net != 0) {
+                        dao.adjustQuantity(conn, sku, received, net);
+                    }
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                dao.invalidate(sku);
+            }
+        }
+
+        for (Delta delta : batch) {
+            if (item == null) {
+                delta.result.completeExceptionally(new ItemNotFoundException(delta.sell
+                        ? "The item is not available in the inventory"
+                        : "The item is not available in the inventory and the item restocking failed."));
+            } else if (delta.granted) {
+                delta.result.complete(null);
+            } else {
+                delta.result.completeExceptionally(new InsufficientStockException(
+                        String.format("The item %s inventory is under stock", item.getName())));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.Daryappa.Inventory.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.Daryappa.Inventory.ds.IHashTable;
+import com.Daryappa.Inventory.ds.TimingWheel;
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+// SKUs bucketed by expiry day (received date + shelf life) in a timing wheel.
+// The wheel is advanced at most once per calendar day, on the first call after midnight,
+// and "expiring in the next N days" only reads the leading buckets.
+public class ExpiryIndex {
+    private final Clock clock;
+    private final TimingWheel<String> wheel;
+
+    public ExpiryIndex() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public ExpiryIndex(Clock clock) {
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(LocalDate.now(clock).toEpochDay());
+    }
+
+    private void advance() {
+        long today = LocalDate.now(clock).toEpochDay();
+        if (today > wheel.currentDay()) {
+            wheel.advanceTo(today);
+        }
+    }
+
+    // Call when an item is added or its received date or shelf life changed
+    public synchronized void update(InventoryRecord item) {
+        advance();
+        wheel.schedule(item.getSku(), item.getExpiryDate().toEpochDay());
+    }
+
+    public synchronized void remove(String sku) {
+        wheel.cancel(sku);
+    }
+
+    public synchronized void rebuild(IHashTable<String, InventoryRecord> inventory) {
+        advance();
+        wheel.clear();
+        inventory.forEach((sku, item) -> wheel.schedule(sku, item.getExpiryDate().toEpochDay()));
+    }
+
+    // SKUs expiring soonest (already expired first), at most count of them
+    public synchronized List<String> soonest(int count) {
+        advance();
+        return wheel.dueBy(Long.MAX_VALUE, count);
+    }
+
+    // SKUs expired or expiring within the next days days, soonest first
+    public synchronized List<String> within(int days) {
+        advance();
+        return wheel.dueBy(wheel.currentDay() + days, Integer.MAX_VALUE);
+    }
+}
@@ -4,10 +4,17 @@ import com.Daryappa.Inventory.model.InsufficientStockException;
 import com.Daryappa.Inventory.model.ItemNotFoundException;
 
 import java.util.List;
+import java.util.Map;
 
 public interface IInventoryManager {
     void addItem(InventoryRecord record);
     void sellItem(String sku, int qty) throws InsufficientStockException, ItemNotFoundException;
     void receiveStock(String sku, int qty) throws ItemNotFoundException;
+    // SKU -> quantity; every line is applied or, if any SKU is missing or short, none is
+    void sellItems(Map<String, Integer> order) throws InsufficientStockException, ItemNotFoundException;
+    void receiveItems(Map<String, Integer> delivery) throws ItemNotFoundException;
     List<InventoryRecord> listLowStock();
+    List<InventoryRecord> suggestRestocks(int count);
+    List<InventoryRecord> suggestExpiringSoon(int count);
+    List<InventoryRecord> listExpiringWithin(int days);
 }
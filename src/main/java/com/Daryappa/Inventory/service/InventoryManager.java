@@ -1,99 +1,202 @@
 package com.Daryappa.Inventory.service;
 
-import com.Daryappa.Inventory.ds.HashTable;
-import com.Daryappa.Inventory.ds.PriorityQueue;
+import com.Daryappa.Inventory.ds.ConcurrentHashTable;
+import com.Daryappa.Inventory.ds.IHashTable;
 import com.Daryappa.Inventory.model.InsufficientStockException;
 import com.Daryappa.Inventory.model.InventoryRecord;
 import com.Daryappa.Inventory.model.ItemNotFoundException;
+import com.Daryappa.Inventory.utils.WriteAheadLog;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 //import com.Daryappa.Inventory.model.InventoryRecord;
 public class InventoryManager implements IInventoryManager {
-    private HashTable<String, InventoryRecord> inventory = new HashTable<>();
+    private ConcurrentHashTable<String, InventoryRecord> inventory = new ConcurrentHashTable<>();
+    // updated under the SKU's stripe lock so index changes for one SKU apply in order
+    private final RestockIndex restockIndex = new RestockIndex();
+    private final ExpiryIndex expiryIndex = new ExpiryIndex();
+    // changes are logged under the same stripe lock that applies them, null when not logging
+    private final WriteAheadLog wal;
+
+    public InventoryManager() {
+        this(null);
+    }
+
+    public InventoryManager(WriteAheadLog wal) {
+        this.wal = wal;
+    }
+
     @Override
     public void addItem(InventoryRecord record){
-        inventory.put(record.getSku(),record);
+        long[] seq = new long[1];
+        inventory.compute(record.getSku(), (key, existing) -> {
+            if (wal != null) seq[0] = wal.appendAdd(record);
+            restockIndex.update(record);
+            expiryIndex.update(record);
+            return record;
+        });
+        awaitDurable(seq[0]);
     }
+    // The stock check and the decrement run under the SKU's stripe lock, so concurrent
+    // sells of the same SKU can never take the quantity below zero
     public  void sellItem(String sku, int qty) throws InsufficientStockException, ItemNotFoundException {
-        if (!inventory.containsKey(sku)) {
+        long[] seq = new long[1];
+        InventoryRecord item = inventory.computeIfPresent(sku, (key, record) -> {
+            if (record.getQuantity() < qty) {
+                throw new InsufficientStockException(String.format("the item %s inventory is under stock", record.getName()));
+            }
+            if (wal != null) seq[0] = wal.appendSell(sku, qty);
+            record.setQuantity(record.getQuantity() - qty);
+            restockIndex.update(record);
+            return record;
+        });
+        if (item == null) {
             throw new ItemNotFoundException("the item is not available in the inventory");
-
-        }
-        InventoryRecord item = inventory.get(sku);
-        if (item.getQuantity() < qty) {
-            throw new InsufficientStockException(String.format("the item %s inventory is under stock", item.getName()));
-//            throw new InsufficientStockException("the item %s inventory in under stock",item.getName());        }
         }
-        item.setQuantity(item.getQuantity()-qty);
-
+        awaitDurable(seq[0]);
     }
 
     public  void receiveStock(String sku, int qty) throws ItemNotFoundException{
-        if (!inventory.containsKey(sku)) {
+        long[] seq = new long[1];
+        LocalDate today = LocalDate.now();
+        InventoryRecord item = inventory.computeIfPresent(sku, (key, record) -> {
+            if (wal != null) seq[0] = wal.appendReceive(sku, qty, today);
+            if (record.getQuantity() == 0 && qty > 0) {
+                // shelf was empty, so the expiry clock restarts with this delivery
+                record.setReceivedDate(today);
+                expiryIndex.update(record);
+            }
+            record.setQuantity(record.getQuantity() + qty);
+            restockIndex.update(record);
+            return record;
+        });
+        if (item == null) {
             throw new ItemNotFoundException("the item is not available in the inventory and the item restocking failed.");
         }
-        InventoryRecord item = inventory.get(sku);
+        awaitDurable(seq[0]);
+    }
 
-        item.setQuantity(item.getQuantity()+qty);
+    // All lines or none: the stripes of every SKU in the order are locked together, all
+    // lines are checked before any is applied, and the order is one WAL record
+    @Override
+    public void sellItems(Map<String, Integer> order) throws InsufficientStockException, ItemNotFoundException {
+        long[] seq = new long[1];
+        inventory.runLocked(order.keySet(), () -> {
+            List<InventoryRecord> records = lookupAll(order.keySet());
+            for (InventoryRecord record : records) {
+                if (record.getQuantity() < order.get(record.getSku())) {
+                    throw new InsufficientStockException(String.format("the item %s inventory is under stock", record.getName()));
+                }
+            }
+            if (wal != null) seq[0] = wal.appendSellAll(order);
+            for (InventoryRecord record : records) {
+                record.setQuantity(record.getQuantity() - order.get(record.getSku()));
+                restockIndex.update(record);
+            }
+        });
+        awaitDurable(seq[0]);
     }
-    public  List<InventoryRecord> listLowStock(){
-        List<InventoryRecord> thresholdItems= new LinkedList<>();
-        List<String> list= inventory.keySet();
-        for (String sku: list){
-            InventoryRecord item = inventory.get(sku);
-            if(item.getQuantity()<item.getReorderThreshold()){
-                thresholdItems.add(item);
+
+    @Override
+    public void receiveItems(Map<String, Integer> delivery) throws ItemNotFoundException {
+        long[] seq = new long[1];
+        LocalDate today = LocalDate.now();
+        inventory.runLocked(delivery.keySet(), () -> {
+            List<InventoryRecord> records = lookupAll(delivery.keySet());
+            if (wal != null) seq[0] = wal.appendReceiveAll(delivery, today);
+            for (InventoryRecord record : records) {
+                int qty = delivery.get(record.getSku());
+                if (record.getQuantity() == 0 && qty > 0) {
+                    record.setReceivedDate(today);
+                    expiryIndex.update(record);
+                }
+                record.setQuantity(record.getQuantity() + qty);
+                restockIndex.update(record);
+            }
+        });
+        awaitDurable(seq[0]);
+    }
+
+    // Called with the stripes held; fails on the first SKU that is not stocked
+    private List<InventoryRecord> lookupAll(Collection<String> skus) {
+        List<InventoryRecord> records = new ArrayList<>(skus.size());
+        for (String sku : skus) {
+            InventoryRecord record = inventory.get(sku);
+            if (record == null) {
+                throw new ItemNotFoundException(String.format("the item %s is not available in the inventory", sku));
             }
+            records.add(record);
         }
+        return records;
+    }
 
+    // Waits for the WAL fsync outside the stripe lock, so concurrent writers share one
+    private void awaitDurable(long seq) {
+        if (seq > 0) {
+            wal.sync(seq);
+        }
+    }
 
+    // Copies every record with all writers held off and rolls the WAL at that point, so the
+    // copy is exactly the state after the returned WAL seq. Only the copying is done under
+    // the locks; the caller writes the snapshot afterwards.
+    public long checkpoint(List<InventoryRecord> copy) {
+        long[] seq = new long[1];
+        inventory.runExclusive(() -> {
+            inventory.forEach((sku, item) -> copy.add(new InventoryRecord(item.getSku(), item.getName(),
+                    item.getQuantity(), item.getReorderThreshold(), item.getShelfLifeDays(), item.getReceivedDate())));
+            seq[0] = wal.roll();
+        });
+        return seq[0];
+    }
+    public  List<InventoryRecord> listLowStock(){
+        List<InventoryRecord> thresholdItems= new ArrayList<>();
+        inventory.forEach((sku, item) -> {
+            if(item.getQuantity()<item.getReorderThreshold()){
+                thresholdItems.add(item);
+            }
+        });
         return thresholdItems;
     }
-    public void setInventory(HashTable<String, InventoryRecord> loadedInventory){
-        inventory = loadedInventory;
+    public void setInventory(IHashTable<String, InventoryRecord> loadedInventory){
+        if (loadedInventory instanceof ConcurrentHashTable<String, InventoryRecord> concurrent) {
+            inventory = concurrent;
+        } else {
+            ConcurrentHashTable<String, InventoryRecord> copy = new ConcurrentHashTable<>(loadedInventory.size());
+            loadedInventory.forEach(copy::put);
+            inventory = copy;
+        }
+        restockIndex.rebuild(inventory);
+        expiryIndex.rebuild(inventory);
     }
-    public HashTable<String, InventoryRecord> getInventory() {
+    public IHashTable<String, InventoryRecord> getInventory() {
         return inventory;
     }
 
     public List<InventoryRecord> suggestRestocks(int count) {
-        PriorityQueue<InventoryRecord> pq = new PriorityQueue<>();
-        List<InventoryRecord> items = inventory.getAllInventory();
-        List<Integer> priorities = new ArrayList<>();
-        List<InventoryRecord> result = new ArrayList<>();
-
-        for (InventoryRecord item : items) {
-            int threshold = item.getReorderThreshold();
-            int priority;
-            // if threshold is 0, treat it as urgent (high priority)
-            if (threshold == 0) {
-                priority = 0;
-            } else {
-                priority = item.getQuantity() * 100 / threshold;  // multiply for better resolution
-            }
-            priorities.add(priority);
-        }
-        pq.heapify(items, priorities);
-        for (int i = 0; i < count && !pq.isEmpty(); i++) {
-            result.add(pq.poll());
-        }
-        return result;
+        return restockIndex.top(count);
     }
 
+    // Soonest expiry dates first, read from the leading buckets of the expiry wheel
     public List<InventoryRecord> suggestExpiringSoon(int count){
-        PriorityQueue<InventoryRecord> pq = new PriorityQueue<>();
-        List<InventoryRecord> items = inventory.getAllInventory();
-        List<Integer> priorities = new ArrayList<>();
-        List<InventoryRecord> result = new ArrayList<>();
+        return toRecords(expiryIndex.soonest(count));
+    }
 
-        for (InventoryRecord item : items) {
-            priorities.add(item.getShelfLifeDays());
-        }
-        pq.heapify(items, priorities);
-        for (int i = 0; i < count && !pq.isEmpty(); i++) {
-            result.add(pq.poll());
+    // Items already expired or expiring in the next days days
+    public List<InventoryRecord> listExpiringWithin(int days) {
+        return toRecords(expiryIndex.within(days));
+    }
+
+    private List<InventoryRecord> toRecords(List<String> skus) {
+        List<InventoryRecord> result = new ArrayList<>(skus.size());
+        for (String sku : skus) {
+            InventoryRecord item = inventory.get(sku);
+            if (item != null) {
+                result.add(item);
+            }
         }
         return result;
     }
@@ -1,71 +1,207 @@
 package com.Daryappa.Inventory.service;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
 
-import com.Daryappa.Inventory.db.InventoryDAO;
+import com.Daryappa.Inventory.db.CachedInventoryDAO;
+import com.Daryappa.Inventory.db.DatabaseConfig;
 import com.Daryappa.Inventory.ds.HashTable;
-import com.Daryappa.Inventory.ds.PriorityQueue;
+import com.Daryappa.Inventory.ds.IHashTable;
+import com.Daryappa.Inventory.model.ConcurrentUpdateException;
 import com.Daryappa.Inventory.model.InsufficientStockException;
 import com.Daryappa.Inventory.model.InventoryRecord;
 import com.Daryappa.Inventory.model.ItemNotFoundException;
+import com.Daryappa.Inventory.model.StorageException;
 
 public class InventoryManagerDB implements IInventoryManager {
-    private InventoryDAO inventoryDAO;
+    // compare-and-set attempts per order, and the longest pause between two of them
+    private static final int MAX_CAS_ATTEMPTS = Math.max(1, Integer.getInteger("inventory.cas.maxAttempts", 8));
+    private static final long MAX_BACKOFF_MS = Long.getLong("inventory.cas.maxBackoffMs", 50);
+    
+    // -Dinventory.combine.enabled=false sends every sell and receive as its own statement
+    private static final boolean COMBINE = Boolean.parseBoolean(System.getProperty("inventory.combine.enabled", "true"));
+    
+    private CachedInventoryDAO inventoryDAO;
+    // concurrent sells and receives of one SKU applied as one statement, see DeltaCombiner
+    private final DeltaCombiner combiner;
     
     public InventoryManagerDB() {
-        this.inventoryDAO = new InventoryDAO();
+        this.inventoryDAO = new CachedInventoryDAO();
+        this.combiner = COMBINE ? new DeltaCombiner(inventoryDAO) : null;
     }
     
+    // Database failures in the writes and lookups below surface as StorageException, so
+    // callers can tell an outage from a missing item
     @Override
-    public void addItem(InventoryRecord record) {
+    public void addItem(InventoryRecord record) throws StorageException {
         try {
             inventoryDAO.saveItem(record);
         } catch (SQLException e) {
             System.err.println("Error adding item to database: " + e.getMessage());
-            e.printStackTrace();
+            throw new StorageException("Database error occurred", e);
         }
     }
     
-    public void sellItem(String sku, int qty) throws InsufficientStockException, ItemNotFoundException {
+    // One conditional UPDATE on the happy path, shared with the concurrent sells and receives
+    // of the same SKU when combining; the row is only read again to explain a failure
+    // (missing SKU vs. not enough stock)
+    public void sellItem(String sku, int qty) throws InsufficientStockException, ItemNotFoundException, StorageException {
         try {
-            if (!inventoryDAO.exists(sku)) {
-                throw new ItemNotFoundException("The item is not available in the inventory");
+            if (combiner != null) {
+                combiner.sell(sku, qty);
+                return;
+            }
+            if (inventoryDAO.decrementQuantity(sku, qty)) {
+                return;
             }
             
             InventoryRecord item = inventoryDAO.getItem(sku);
-            if (item.getQuantity() < qty) {
-                throw new InsufficientStockException(
-                    String.format("The item %s inventory is under stock", item.getName())
-                );
+            if (item == null) {
+                throw new ItemNotFoundException("The item is not available in the inventory");
             }
-            
-            item.setQuantity(item.getQuantity() - qty);
-            inventoryDAO.saveItem(item);
+            throw new InsufficientStockException(
+                String.format("The item %s inventory is under stock", item.getName())
+            );
             
         } catch (SQLException e) {
             System.err.println("Error selling item: " + e.getMessage());
-            throw new ItemNotFoundException("Database error occurred");
+            throw new StorageException("Database error occurred", e);
         }
     }
     
-    public void receiveStock(String sku, int qty) throws ItemNotFoundException {
+    public void receiveStock(String sku, int qty) throws ItemNotFoundException, StorageException {
         try {
-            if (!inventoryDAO.exists(sku)) {
+            if (combiner != null) {
+                combiner.receive(sku, qty);
+                return;
+            }
+            if (!inventoryDAO.incrementQuantity(sku, qty)) {
                 throw new ItemNotFoundException("The item is not available in the inventory and the item restocking failed.");
             }
             
-            InventoryRecord item = inventoryDAO.getItem(sku);
-            item.setQuantity(item.getQuantity() + qty);
-            inventoryDAO.saveItem(item);
-            
         } catch (SQLException e) {
             System.err.println("Error receiving stock: " + e.getMessage());
-            throw new ItemNotFoundException("Database error occurred");
+            throw new StorageException("Database error occurred", e);
+        }
+    }
+    
+    // The whole order as one optimistic transaction: read its rows with their versions,
+    // check every line, then update them all in one compare-and-set batch. No row is locked
+    // while the order is checked; if another write got in between, the batch is rolled back
+    // and the order retried from a fresh read after a short random backoff, at most
+    // inventory.cas.maxAttempts times. Either every line is applied or none is.
+    @Override
+    public void sellItems(Map<String, Integer> order)
+            throws InsufficientStockException, ItemNotFoundException, ConcurrentUpdateException, StorageException {
+        applyOrder(order, true);
+    }
+    
+    @Override
+    public void receiveItems(Map<String, Integer> delivery)
+            throws ItemNotFoundException, ConcurrentUpdateException, StorageException {
+        applyOrder(delivery, false);
+    }
+    
+    private void applyOrder(Map<String, Integer> lines, boolean sell) {
+        // sorted so concurrent orders update overlapping rows in the same order
+        SortedMap<String, Integer> sorted = new TreeMap<>(lines);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                if (tryApplyOrder(sorted, sell)) {
+                    return;
+                }
+                if (attempt == MAX_CAS_ATTEMPTS) {
+                    throw new ConcurrentUpdateException(String.format(
+                        "The order was changed concurrently %d times in a row, nothing was applied", attempt));
+                }
+                backoff(attempt);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error " + (sell ? "selling" : "receiving") + " order: " + e.getMessage());
+            throw new StorageException("Database error occurred", e);
+        }
+    }
+    
+    // One attempt; false if a row changed between the read and the update
+    private boolean tryApplyOrder(SortedMap<String, Integer> lines, boolean sell) throws SQLException {
+        try (Connection conn = DatabaseConfig.getConnection()) {
+            HashTable<String, InventoryRecord> rows = inventoryDAO.getItems(conn, lines.keySet());
+            Map<String, Integer> deltas = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> line : lines.entrySet()) {
+                InventoryRecord item = rows.get(line.getKey());
+                if (item == null) {
+                    throw new ItemNotFoundException(String.format("The item %s is not available in the inventory", line.getKey()));
+                }
+                if (sell && item.getQuantity() < line.getValue()) {
+                    throw new InsufficientStockException(
+                        String.format("The item %s inventory is under stock", item.getName())
+                    );
+                }
+                deltas.put(line.getKey(), sell ? -line.getValue() : line.getValue());
+            }
+            
+            conn.setAutoCommit(false);
+            try {
+                boolean applied = inventoryDAO.adjustQuantities(conn, deltas, rows);
+                if (applied) {
+                    conn.commit();
+                } else {
+                    conn.rollback();
+                }
+                return applied;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                for (String sku : lines.keySet()) {
+                    inventoryDAO.invalidate(sku);
+                }
+            }
+        }
+    }
+    
+    // Sleeps a random time up to a cap that doubles per attempt, so conflicting writers spread out
+    private static void backoff(int attempt) {
+        long capMillis = Math.min(MAX_BACKOFF_MS, 1L << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(capMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a concurrent update");
+        }
+    }
+    
+    // Single-item lookup, served from the cache for hot SKUs
+    public InventoryRecord getItem(String sku) throws ItemNotFoundException, StorageException {
+        try {
+            InventoryRecord item = inventoryDAO.getItem(sku);
+            if (item == null) {
+                throw new ItemNotFoundException("The item is not available in the inventory");
+            }
+            return item;
+        } catch (SQLException e) {
+            System.err.println("Error getting item: " + e.getMessage());
+            throw new StorageException("Database error occurred", e);
         }
     }
     
+    public String getCacheStats() {
+        return String.format("%d cached, %d hits, %d misses (%.1f%% hit rate)",
+                inventoryDAO.size(), inventoryDAO.getHitCount(), inventoryDAO.getMissCount(),
+                inventoryDAO.getHitRate() * 100);
+    }
+    
     public List<InventoryRecord> listLowStock() {
         try {
             return inventoryDAO.getLowStockItems();
@@ -85,30 +221,11 @@ public class InventoryManagerDB implements IInventoryManager {
     }
     
     public List<InventoryRecord> suggestRestocks(int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
         try {
-            PriorityQueue<InventoryRecord> pq = new PriorityQueue<>();
-            List<InventoryRecord> items = inventoryDAO.getAllItems();
-            List<Integer> priorities = new ArrayList<>();
-            List<InventoryRecord> result = new ArrayList<>();
-            
-            for (InventoryRecord item : items) {
-                int threshold = item.getReorderThreshold();
-                int priority;
-                // if threshold is 0, treat it as urgent (high priority)
-                if (threshold == 0) {
-                    priority = 0;
-                } else {
-                    priority = item.getQuantity() * 100 / threshold;
-                }
-                priorities.add(priority);
-            }
-            
-            pq.heapify(items, priorities);
-            for (int i = 0; i < count && !pq.isEmpty(); i++) {
-                result.add(pq.poll());
-            }
-            
-            return result;
+            return inventoryDAO.getRestockCandidates(count);
         } catch (SQLException e) {
             System.err.println("Error suggesting restocks: " + e.getMessage());
             return new ArrayList<>();
@@ -116,44 +233,47 @@ public class InventoryManagerDB implements IInventoryManager {
     }
     
     public List<InventoryRecord> suggestExpiringSoon(int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
         try {
-            PriorityQueue<InventoryRecord> pq = new PriorityQueue<>();
-            List<InventoryRecord> items = inventoryDAO.getAllItems();
-            List<Integer> priorities = new ArrayList<>();
-            List<InventoryRecord> result = new ArrayList<>();
-            
-            for (InventoryRecord item : items) {
-                priorities.add(item.getShelfLifeDays());
-            }
-            
-            pq.heapify(items, priorities);
-            for (int i = 0; i < count && !pq.isEmpty(); i++) {
-                result.add(pq.poll());
-            }
-            
-            return result;
+            return inventoryDAO.getSoonestExpiring(count);
         } catch (SQLException e) {
             System.err.println("Error suggesting expiring items: " + e.getMessage());
             return new ArrayList<>();
         }
     }
     
+    public List<InventoryRecord> listExpiringWithin(int days) {
+        try {
+            return inventoryDAO.getItemsExpiringBy(LocalDate.now().plusDays(days));
+        } catch (SQLException e) {
+            System.err.println("Error listing expiring items: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+    
     // For backward compatibility with old file-based system
-    public void setInventory(HashTable<String, InventoryRecord> loadedInventory) {
+    public void setInventory(IHashTable<String, InventoryRecord> loadedInventory) {
         try {
-            List<String> keys = loadedInventory.keySet();
-            for (String sku : keys) {
-                InventoryRecord item = loadedInventory.get(sku);
-                if (item != null) {
-                    inventoryDAO.saveItem(item);
-                }
-            }
+            inventoryDAO.saveItems(loadedInventory.getAllInventory());
             System.out.println("✅ Legacy inventory loaded into database successfully.");
         } catch (SQLException e) {
             System.err.println("Error loading legacy inventory: " + e.getMessage());
         }
     }
     
+    // Bulk-loads a CSV through BulkImporter; returns the rows written, -1 if it stopped early
+    // (running it again resumes from the last committed batch)
+    public long importCsv(String filePath) {
+        try {
+            return new BulkImporter(inventoryDAO, Path.of(filePath)).run();
+        } catch (SQLException | IOException e) {
+            System.err.println("Error importing " + filePath + ": " + e.getMessage());
+            return -1;
+        }
+    }
+    
     public HashTable<String, InventoryRecord> getInventory() {
         HashTable<String, InventoryRecord> inventory = new HashTable<>();
         try {
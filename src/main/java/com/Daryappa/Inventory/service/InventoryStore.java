@@ -0,0 +1,162 @@
+package com.Daryappa.Inventory.service;
+
+import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.model.InventoryRecord;
+import com.Daryappa.Inventory.utils.BinarySnapshot;
+import com.Daryappa.Inventory.utils.FileHandler;
+import com.Daryappa.Inventory.utils.WriteAheadLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Persistence for legacy file mode: a binary snapshot (see BinarySnapshot) plus a
+// write-ahead log of every change made since. Each add/sell/receive costs one small WAL
+// append; a background checkpointer periodically rewrites the snapshot and drops the WAL
+// files it covers. On startup the last snapshot is loaded (the old inventory.csv until the
+// first checkpoint) and the WAL tail replayed on top of it, so a crash loses nothing that
+// was acknowledged.
+//
+// System properties:
+//   inventory.wal.dir                directory of the WAL files (default: current directory)
+//   inventory.wal.fsync              force each change to disk before returning (default true)
+//   inventory.checkpoint.intervalSec seconds between checkpoints (default 60)
+public class InventoryStore implements AutoCloseable {
+    private final Path snapshotPath;
+    private final String csvPath;
+    private final Path walDir;
+    private final boolean fsync;
+    private final long intervalSec;
+
+    private WriteAheadLog wal;
+    private InventoryManager manager;
+    private ScheduledExecutorService checkpointer;
+    // WAL seq covered by the snapshot on disk, guarded by this
+    private long snapshotSeq;
+
+    // csvPath is read only while snapshotPath does not exist yet
+    public InventoryStore(String snapshotPath, String csvPath) {
+        this.snapshotPath = Path.of(snapshotPath);
+        this.csvPath = csvPath;
+        this.walDir = Path.of(System.getProperty("inventory.wal.dir", "."));
+        this.fsync = Boolean.parseBoolean(System.getProperty("inventory.wal.fsync", "true"));
+        this.intervalSec = Long.getLong("inventory.checkpoint.intervalSec", 60);
+    }
+
+    // Recovers the inventory and returns a manager that logs every change
+    public synchronized InventoryManager open() throws IOException {
+        HashTable<String, InventoryRecord> inventory = loadSnapshot();
+        long lastSeq = WriteAheadLog.replay(walDir, snapshotSeq, new Replay(inventory));
+        if (lastSeq > snapshotSeq) {
+            System.out.println("Recovered " + (lastSeq - snapshotSeq) + " changes from the write-ahead log.");
+        }
+
+        wal = new WriteAheadLog(walDir, lastSeq, fsync);
+        manager = new InventoryManager(wal);
+        manager.setInventory(inventory);
+
+        checkpointer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleWithFixedDelay(() -> {
+            try {
+                checkpoint();
+            } catch (IOException | RuntimeException e) {
+                // the WAL still has every change, the next checkpoint tries again
+                System.err.println("Error writing checkpoint: " + e.getMessage());
+            }
+        }, intervalSec, intervalSec, TimeUnit.SECONDS);
+        return manager;
+    }
+
+    // The latest saved state, snapshot plus WAL tail, without opening the store for writing;
+    // used to migrate legacy data into the database
+    public synchronized HashTable<String, InventoryRecord> load() throws IOException {
+        HashTable<String, InventoryRecord> inventory = loadSnapshot();
+        WriteAheadLog.replay(walDir, snapshotSeq, new Replay(inventory));
+        return inventory;
+    }
+
+    private HashTable<String, InventoryRecord> loadSnapshot() throws IOException {
+        if (Files.exists(snapshotPath)) {
+            BinarySnapshot snapshot = BinarySnapshot.read(snapshotPath);
+            snapshotSeq = snapshot.walSeq;
+            return snapshot.inventory;
+        }
+        if (Files.exists(Path.of(csvPath))) {
+            snapshotSeq = FileHandler.readSnapshotSeq(csvPath);
+            return FileHandler.loadInventory(csvPath);
+        }
+        snapshotSeq = 0;
+        return new HashTable<>();
+    }
+
+    // Writes a snapshot of the current state and deletes the WAL files it makes redundant
+    public synchronized void checkpoint() throws IOException {
+        if (wal == null || wal.lastSeq() == snapshotSeq) {
+            return;
+        }
+        List<InventoryRecord> records = new ArrayList<>(manager.getInventory().size());
+        long seq = manager.checkpoint(records);
+        BinarySnapshot.write(records, snapshotPath, seq);
+        snapshotSeq = seq;
+        wal.deleteThrough(seq);
+    }
+
+    // Final checkpoint, then stops logging
+    @Override
+    public synchronized void close() throws IOException {
+        if (wal == null) {
+            return;
+        }
+        checkpointer.shutdownNow();
+        try {
+            checkpoint();
+            System.out.println("Inventory saved to file successfully.");
+        } finally {
+            wal.close();
+            wal = null;
+        }
+    }
+
+    // Applies WAL records straight to the loaded table, the same way the manager applied them
+    private static final class Replay implements WriteAheadLog.Replayer {
+        private final HashTable<String, InventoryRecord> inventory;
+
+        Replay(HashTable<String, InventoryRecord> inventory) {
+            this.inventory = inventory;
+        }
+
+        @Override
+        public void add(InventoryRecord record) {
+            inventory.put(record.getSku(), record);
+        }
+
+        @Override
+        public void sell(String sku, int qty) {
+            InventoryRecord record = inventory.get(sku);
+            if (record != null) {
+                record.setQuantity(record.getQuantity() - qty);
+            }
+        }
+
+        @Override
+        public void receive(String sku, int qty, LocalDate receivedOn) {
+            InventoryRecord record = inventory.get(sku);
+            if (record != null) {
+                if (record.getQuantity() == 0 && qty > 0) {
+                    record.setReceivedDate(receivedOn);
+                }
+                record.setQuantity(record.getQuantity() + qty);
+            }
+        }
+    }
+}
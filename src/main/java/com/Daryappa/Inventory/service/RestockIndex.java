@@ -0,0 +1,132 @@
+package com.Daryappa.Inventory.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.ds.IHashTable;
+import com.Daryappa.Inventory.ds.PriorityQueue;
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+// Restock ranking kept up to date as stock changes, so suggestRestocks reads the
+// top K of live indexed heaps instead of heapifying the whole catalog on every call.
+// The SKUs are split over shards with their own heap and lock, the same way
+// ConcurrentHashTable splits them over stripes, so sells and receives of SKUs in
+// different stripes never wait for each other here. top() merges the shards' leaders.
+public class RestockIndex {
+    private static final int MIN_SHARDS = 16;
+    private static final int MAX_SHARDS = 1024;
+
+    private static final class Shard {
+        PriorityQueue<InventoryRecord> heap = new PriorityQueue<>();
+        // the record currently queued for each SKU, so a replaced record can be dropped
+        HashTable<String, InventoryRecord> bySku = new HashTable<>();
+    }
+
+    private final Shard[] shards;
+    private final int shift;
+
+    public RestockIndex() {
+        int wanted = Runtime.getRuntime().availableProcessors() * 4;
+        int count = Math.max(MIN_SHARDS, Math.min(MAX_SHARDS, Integer.highestOneBit(wanted - 1) << 1));
+        this.shift = 32 - Integer.numberOfTrailingZeros(count);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    // quantity / threshold ratio in percent, lower means more urgent
+    public static int priorityOf(InventoryRecord item) {
+        int threshold = item.getReorderThreshold();
+        // if threshold is 0, treat it as urgent (high priority)
+        if (threshold == 0) {
+            return 0;
+        }
+        return item.getQuantity() * 100 / threshold;  // multiply for better resolution
+    }
+
+    // High bits of a Fibonacci hash, as ConcurrentHashTable picks its stripe
+    private Shard shardFor(String sku) {
+        return shards[(sku.hashCode() * 0x9E3779B9) >>> shift];
+    }
+
+    // Call after the item's quantity or threshold changed, or when it is added
+    public void update(InventoryRecord item) {
+        Shard shard = shardFor(item.getSku());
+        synchronized (shard) {
+            InventoryRecord previous = shard.bySku.get(item.getSku());
+            if (previous != null && previous != item) {
+                shard.heap.remove(previous);
+            }
+            shard.heap.add(item, priorityOf(item));
+            shard.bySku.put(item.getSku(), item);
+        }
+    }
+
+    public void remove(String sku) {
+        Shard shard = shardFor(sku);
+        synchronized (shard) {
+            InventoryRecord previous = shard.bySku.get(sku);
+            if (previous != null) {
+                shard.heap.remove(previous);
+                shard.bySku.remove(sku);
+            }
+        }
+    }
+
+    public void rebuild(IHashTable<String, InventoryRecord> inventory) {
+        List<List<InventoryRecord>> split = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            split.add(new ArrayList<>());
+        }
+        for (InventoryRecord item : inventory.getAllInventory()) {
+            split.get((item.getSku().hashCode() * 0x9E3779B9) >>> shift).add(item);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            List<InventoryRecord> items = split.get(i);
+            HashTable<String, InventoryRecord> bySku = new HashTable<>(items.size());
+            for (InventoryRecord item : items) {
+                bySku.put(item.getSku(), item);
+            }
+            PriorityQueue<InventoryRecord> heap = new PriorityQueue<>(items.size());
+            heap.heapify(items, RestockIndex::priorityOf);
+            synchronized (shards[i]) {
+                shards[i].bySku = bySku;
+                shards[i].heap = heap;
+            }
+        }
+    }
+
+    // The count most urgent items: the top count of every shard, merged.
+    // Each shard is read under its own lock, so the result is weakly consistent.
+    public List<InventoryRecord> top(int count) {
+        if (count <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<InventoryRecord> merged = new PriorityQueue<>(count * 2);
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                // priorities are taken once, under the lock, so the merge sees fixed values
+                for (InventoryRecord item : shard.heap.peekTop(count)) {
+                    merged.add(item, priorityOf(item));
+                }
+            }
+        }
+        List<InventoryRecord> result = new ArrayList<>(Math.min(count, merged.size()));
+        while (result.size() < count && !merged.isEmpty()) {
+            result.add(merged.poll());
+        }
+        return result;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += shard.heap.size();
+            }
+        }
+        return size;
+    }
+}
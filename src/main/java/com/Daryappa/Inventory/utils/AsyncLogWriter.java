@@ -0,0 +1,178 @@
+package com.Daryappa.Inventory.utils;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.Daryappa.Inventory.db.TransactionLogDAO;
+import com.Daryappa.Inventory.model.LogEntry;
+
+// Group-commit writer for the transaction log.
+// Callers only enqueue into a bounded buffer; one background thread drains it and writes
+// up to batchSize entries per INSERT batch. A batch is written when it is full or when the
+// flush window since its first entry has passed. When the buffer is full, enqueue blocks
+// until the writer catches up. Batches the database rejects go to the CSV log instead.
+public class AsyncLogWriter implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final long DEFAULT_FLUSH_WINDOW_MS = 5;
+    private static final long CLOSE_TIMEOUT_MS = 10_000;
+
+    // marks the end of the stream on close
+    private static final LogEntry POISON = new LogEntry(null, null, null, null, 0, null);
+
+    private final TransactionLogDAO logDAO;
+    private final BlockingQueue<LogEntry> queue;
+    private final int batchSize;
+    private final long flushWindowNanos;
+    private final Thread writer;
+    private final AtomicLong enqueued = new AtomicLong();
+    private long written;  // guarded by this
+    // enqueue holds the read side from its closed check until the entry is queued, so once
+    // close() has taken the write side no entry can slip in behind the final drain
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;  // guarded by closeLock
+
+    public AsyncLogWriter(TransactionLogDAO logDAO) {
+        this(logDAO, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_WINDOW_MS);
+    }
+
+    public AsyncLogWriter(TransactionLogDAO logDAO, int capacity, int batchSize, long flushWindowMs) {
+        this.logDAO = logDAO;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushWindowNanos = TimeUnit.MILLISECONDS.toNanos(flushWindowMs);
+        this.writer = new Thread(this::run, "transaction-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void enqueue(LogEntry entry) {
+        closeLock.readLock().lock();
+        try {
+            if (!closed && offer(entry)) {
+                enqueued.incrementAndGet();
+                return;
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        // closed, interrupted or no writer left: write it on the caller's thread
+        write(List.of(entry));
+    }
+
+    // Waits for room while the writer is alive; false if it died or the caller was interrupted
+    private boolean offer(LogEntry entry) {
+        try {
+            while (writer.isAlive()) {
+                if (queue.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    // Blocks until every entry enqueued before this call has been written
+    public void flush() {
+        long target = enqueued.get();
+        synchronized (this) {
+            while (written < target && writer.isAlive()) {
+                try {
+                    wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Writes out everything still buffered and stops the background thread
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            if (queue.offer(POISON, CLOSE_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                writer.join(CLOSE_TIMEOUT_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // whatever the writer did not get to (it died or timed out) is written here
+        List<LogEntry> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        rest.remove(POISON);
+        write(rest);
+        synchronized (this) {
+            written += rest.size();
+            notifyAll();
+        }
+    }
+
+    private void run() {
+        List<LogEntry> batch = new ArrayList<>(batchSize);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + flushWindowNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    LogEntry next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // only close() ends the writer, keep draining
+                continue;
+            }
+
+            // nothing is queued after POISON: close() shuts enqueue out before adding it
+            stop = batch.remove(POISON);
+            write(batch);
+            synchronized (this) {
+                written += batch.size();
+                notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(List<LogEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            logDAO.logTransactions(batch);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error logging transactions to database: " + e.getMessage());
+            // Fallback to file-based logging
+            for (LogEntry entry : batch) {
+                TransactionLogger.log(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.Daryappa.Inventory.utils;
+
+import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+// Binary inventory snapshot, the checkpoint format of legacy file mode.
+//   header:  magic "INVS" (int), version (int), WAL seq covered (long), record count (int)
+//   record:  sku, name, quantity (int), reorder threshold (int), shelf life days (int),
+//            received date (long, epoch day)
+//   trailer: CRC32 of every byte before it (int)
+// Strings are an int byte length followed by UTF-8, so names may contain commas.
+// Loading is a sequential read of fixed-width fields into a table sized from the header,
+// with no line splitting or number parsing.
+public final class BinarySnapshot {
+    private static final int MAGIC = 0x494E5653;  // "INVS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int MIN_RECORD_SIZE = 28;  // two empty strings and the fixed fields
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    public final HashTable<String, InventoryRecord> inventory;
+    public final long walSeq;
+
+    private BinarySnapshot(HashTable<String, InventoryRecord> inventory, long walSeq) {
+        this.inventory = inventory;
+        this.walSeq = walSeq;
+    }
+
+    // Writes to a temp file, forces it to disk and renames it over the old snapshot, so a
+    // crash leaves either the old or the new one, never a partial file
+    public static void write(Collection<InventoryRecord> records, Path path, long walSeq) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer writer = new Writer(out);
+            writer.need(HEADER_SIZE);
+            writer.buffer.putInt(MAGIC).putInt(VERSION).putLong(walSeq).putInt(records.size());
+            for (InventoryRecord item : records) {
+                byte[] sku = item.getSku().getBytes(StandardCharsets.UTF_8);
+                byte[] name = item.getName().getBytes(StandardCharsets.UTF_8);
+                writer.need(4 + sku.length + 4 + name.length + 20);
+                writer.buffer.putInt(sku.length).put(sku)
+                        .putInt(name.length).put(name)
+                        .putInt(item.getQuantity())
+                        .putInt(item.getReorderThreshold())
+                        .putInt(item.getShelfLifeDays())
+                        .putLong(item.getReceivedDate().toEpochDay());
+            }
+            writer.finish();
+            out.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Throws IOException if the file is not a snapshot, is from a newer version, or fails its checksum
+    public static BinarySnapshot read(Path path) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            Reader reader = new Reader(in, in.size());
+            reader.need(HEADER_SIZE);
+            ByteBuffer buffer = reader.buffer;
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(path + " is not an inventory snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+            long walSeq = buffer.getLong();
+            int count = buffer.getInt();
+            if (count < 0 || count > (reader.unread + buffer.remaining()) / MIN_RECORD_SIZE) {
+                throw new IOException("Corrupt snapshot " + path);
+            }
+            HashTable<String, InventoryRecord> inventory = new HashTable<>(count);
+            for (int i = 0; i < count; i++) {
+                String sku = reader.string();
+                String name = reader.string();
+                reader.need(20);
+                buffer = reader.buffer;
+                InventoryRecord item = new InventoryRecord(sku, name, buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                        LocalDate.ofEpochDay(buffer.getLong()));
+                inventory.put(sku, item);
+            }
+            reader.verify(path);
+            return new BinarySnapshot(inventory, walSeq);
+        }
+    }
+
+    // Fills a buffer and hands it to the channel when the next field would not fit
+    private static final class Writer {
+        private final FileChannel out;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        Writer(FileChannel out) {
+            this.out = out;
+        }
+
+        void need(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return;
+            drain();
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes);
+            }
+        }
+
+        void finish() throws IOException {
+            drain();
+            buffer.putInt((int) crc.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            crc.update(buffer.array(), 0, buffer.limit());
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // Reads the file in large chunks, checksumming every byte before the trailer as it arrives
+    private static final class Reader {
+        private final FileChannel in;
+        private final CRC32 crc = new CRC32();
+        private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        // bytes not yet read from the file
+        private long unread;
+        // bytes still to be fed to the checksum, the trailer is excluded
+        private long unchecked;
+
+        Reader(FileChannel in, long size) {
+            this.in = in;
+            this.unread = size;
+            this.unchecked = size - 4;
+        }
+
+        // Makes at least bytes readable from buffer
+        void need(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return;
+            if (bytes - buffer.remaining() > unread) {
+                // also keeps a corrupt length from allocating a huge buffer
+                throw new IOException("Snapshot is truncated");
+            }
+            if (buffer.capacity() < bytes) {
+                buffer = ByteBuffer.allocate(bytes).put(buffer);
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < bytes) {
+                int start = buffer.position();
+                int read = in.read(buffer);
+                if (read < 0) {
+                    throw new IOException("Snapshot is truncated");
+                }
+                unread -= read;
+                int checked = (int) Math.max(0, Math.min(read, unchecked));
+                crc.update(buffer.array(), start, checked);
+                unchecked -= checked;
+            }
+            buffer.flip();
+        }
+
+        String string() throws IOException {
+            need(4);
+            int length = buffer.getInt();
+            if (length < 0) {
+                throw new IOException("Corrupt snapshot string length " + length);
+            }
+            need(length);
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        // The trailer must follow the last record directly and match the bytes read
+        void verify(Path path) throws IOException {
+            need(4);
+            int expected = buffer.getInt();
+            if (unchecked != 0 || buffer.hasRemaining() || expected != (int) crc.getValue()) {
+                throw new IOException("Snapshot checksum mismatch in " + path);
+            }
+        }
+    }
+}
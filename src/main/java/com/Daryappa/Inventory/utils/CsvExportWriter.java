@@ -0,0 +1,105 @@
+package com.Daryappa.Inventory.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+import com.Daryappa.Inventory.model.LogEntry;
+
+// Writes CSV rows to a file through one fixed-size buffer, optionally gzipped on the fly.
+// Rows are encoded straight into the buffer and the buffer goes to the channel whenever
+// it fills up, so memory stays the same however many rows are exported.
+public class CsvExportWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder line = new StringBuilder(256);
+    private long rows;
+
+    public CsvExportWriter(Path path, boolean gzip) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        FileChannel file = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.out = gzip
+                ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(file), BUFFER_SIZE))
+                : file;
+    }
+
+    public void writeHeader(String header) throws IOException {
+        line.setLength(0);
+        line.append(header).append('\n');
+        encode();
+    }
+
+    public void writeRow(String... columns) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) line.append(',');
+            line.append(columns[i]);
+        }
+        line.append('\n');
+        encode();
+        rows++;
+    }
+
+    public void writeRow(LogEntry entry) throws IOException {
+        line.setLength(0);
+        line.append(entry.getDate()).append(',')
+                .append(entry.getTime()).append(',')
+                .append(entry.getAction()).append(',')
+                .append(entry.getSku()).append(',')
+                .append(entry.getQuantity()).append(',')
+                .append(entry.getItemName()).append('\n');
+        encode();
+        rows++;
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    private void encode() throws IOException {
+        CharBuffer chars = CharBuffer.wrap(line);
+        encoder.reset();
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            drain();
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Writes out the buffer and closes the file (finishing the gzip stream if any)
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+}
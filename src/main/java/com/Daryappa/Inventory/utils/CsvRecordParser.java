@@ -0,0 +1,144 @@
+package com.Daryappa.Inventory.utils;
+
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+// Parses one inventory CSV row (sku,name,quantity,threshold,shelfLife[,receivedDate]) in
+// place from a byte buffer, without a line String or String[]. Names may be quoted, with
+// "" for a quote. Returns null for rows that are blank, short, or have a bad number or date,
+// which also covers header lines. Shared by ParallelCsvLoader and InventoryCsvReader.
+final class CsvRecordParser {
+    private final ByteBuffer map;
+    private byte[] scratch = new byte[256];
+    private int pos;
+    private int end;
+    private boolean more;
+    private boolean bad;
+
+    CsvRecordParser(ByteBuffer map) {
+        this.map = map;
+    }
+
+    // The row in [start, end) of the buffer, end excluding the line break
+    InventoryRecord parse(int start, int end, LocalDate today) {
+        if (end > start && map.get(end - 1) == '\r') end--;
+        if (blank(start, end)) return null;
+        this.pos = start;
+        this.end = end;
+        this.more = true;
+        this.bad = false;
+
+        String sku = text();
+        if (!more) return null;
+        String name = text();
+        if (!more) return null;
+        int quantity = number();
+        if (!more) return null;
+        int threshold = number();
+        if (!more) return null;
+        int shelfLife = number();
+        // rows saved before receivedDate existed have 5 columns, treat their stock as received today
+        LocalDate received = more ? date() : today;
+        return bad ? null : new InventoryRecord(sku, name, quantity, threshold, shelfLife, received);
+    }
+
+    private boolean blank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (map.get(i) > ' ') return false;
+        }
+        return true;
+    }
+
+    private String text() {
+        int length = 0;
+        if (pos < end && map.get(pos) == '"') {
+            // quoted: "" is one quote, commas are part of the field
+            pos++;
+            while (pos < end) {
+                byte b = map.get(pos++);
+                if (b == '"') {
+                    if (pos < end && map.get(pos) == '"') {
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                if (length == scratch.length) scratch = Arrays.copyOf(scratch, length * 2);
+                scratch[length++] = b;
+            }
+            while (pos < end && map.get(pos) != ',') pos++;
+        } else {
+            int fieldEnd = pos;
+            while (fieldEnd < end && map.get(fieldEnd) != ',') fieldEnd++;
+            length = fieldEnd - pos;
+            if (scratch.length < length) scratch = new byte[length];
+            map.get(pos, scratch, 0, length);
+            pos = fieldEnd;
+        }
+        skipComma();
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private int number() {
+        boolean negative = pos < end && map.get(pos) == '-';
+        if (negative) pos++;
+        long value = 0;
+        int digits = 0;
+        while (pos < end && map.get(pos) != ',') {
+            int d = map.get(pos++) - '0';
+            if (d < 0 || d > 9 || ++digits > 10) {
+                bad = true;
+                continue;
+            }
+            value = value * 10 + d;
+        }
+        if (digits == 0 || value > Integer.MAX_VALUE) bad = true;
+        skipComma();
+        return (int) (negative ? -value : value);
+    }
+
+    // dd-MM-yyyy
+    private LocalDate date() {
+        int start = pos;
+        while (pos < end && map.get(pos) != ',') pos++;
+        int length = pos - start;
+        skipComma();
+        if (length != 10 || map.get(start + 2) != '-' || map.get(start + 5) != '-') {
+            bad = true;
+            return null;
+        }
+        int day = digits(start, 2);
+        int month = digits(start + 3, 2);
+        int year = digits(start + 6, 4);
+        if (day < 0 || month < 0 || year < 0) {
+            bad = true;
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            bad = true;
+            return null;
+        }
+    }
+
+    private int digits(int at, int count) {
+        int value = 0;
+        for (int i = at; i < at + count; i++) {
+            int d = map.get(i) - '0';
+            if (d < 0 || d > 9) return -1;
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private void skipComma() {
+        more = pos < end;
+        if (more) pos++;
+    }
+}
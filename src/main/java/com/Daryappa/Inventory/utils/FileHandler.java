@@ -2,74 +2,95 @@ package com.Daryappa.Inventory.utils;
 
 import com.Daryappa.Inventory.ds.HashTable;
 import com.Daryappa.Inventory.model.InventoryRecord;
-import com.Daryappa.Inventory.model.ItemNotFoundException;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.List;
+import java.util.Collection;
 
 public class FileHandler {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter SAVED_AT_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+    private static final String WAL_SEQ = " walSeq=";
 
-    public static void saveInventory(HashTable<String, InventoryRecord> inventory, String filePath) {
-        try {
-            LocalDateTime time = LocalDateTime.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-
-//            FileWriter writer = new FileWriter(filePath, true);  // append mode
-            FileWriter writer = new FileWriter(filePath);
-            String formatted = time.format(formatter);
-
-            // Header and timestamp
-            writer.write("Inventory Saved At: " + formatted + "\n");
-            writer.write("sku,name,quantity,reorderThreshold,shelfLifeDays\n");
-
-            List<String> keys = inventory.keySet();
-            for (String sku : keys) {
-                InventoryRecord item = inventory.get(sku);
-                if (item == null) throw new ItemNotFoundException("Inventory missing for SKU: " + sku);
-
-                String line = sku + "," +
-                        item.getName() + "," +
-                        item.getQuantity() + "," +
-                        item.getReorderThreshold() + "," +
-                        item.getShelfLifeDays() + "\n";
-
-                writer.write(line);
+    // Checkpoint snapshot: the same CSV layout with the WAL seq it covers appended to the
+    // first line. Written to a temp file, forced to disk and renamed over the old snapshot,
+    // so a crash leaves either the old or the new one, never a partial file.
+    public static void saveSnapshot(Collection<InventoryRecord> records, String filePath, long walSeq) throws IOException {
+        Path target = Path.of(filePath);
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp.toFile());
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024)) {
+            writer.write("Inventory Saved At: " + LocalDateTime.now().format(SAVED_AT_FORMAT) + WAL_SEQ + walSeq + "\n");
+            writer.write("sku,name,quantity,reorderThreshold,shelfLifeDays,receivedDate\n");
+            for (InventoryRecord item : records) {
+                writeRecord(writer, item);
             }
-
             writer.write("\n");
-            writer.close();
-            System.out.println("Inventory saved to file successfully.");
+            writer.flush();
+            out.getChannel().force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
 
-        } catch (IOException e) {
-            System.out.println("Error: " + e.getMessage());
-        } catch (ItemNotFoundException e) {
-            System.out.println("Missing data: " + e.getMessage());
+    // WAL seq a snapshot covers, 0 for a missing file or one saved without a WAL
+    public static long readSnapshotSeq(String filePath) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+            String first = reader.readLine();
+            int at = first == null ? -1 : first.lastIndexOf(WAL_SEQ);
+            return at < 0 ? 0 : Long.parseLong(first.substring(at + WAL_SEQ.length()).trim());
+        } catch (IOException | NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void writeRecord(BufferedWriter writer, InventoryRecord item) throws IOException {
+        writer.write(item.getSku());
+        writer.write(',');
+        writeField(writer, item.getName());
+        writer.write(',');
+        writer.write(Integer.toString(item.getQuantity()));
+        writer.write(',');
+        writer.write(Integer.toString(item.getReorderThreshold()));
+        writer.write(',');
+        writer.write(Integer.toString(item.getShelfLifeDays()));
+        writer.write(',');
+        writer.write(item.getReceivedDate().format(DATE_FORMAT));
+        writer.write('\n');
+    }
+
+    // Quotes a field that would otherwise split the line, doubling quotes inside it
+    private static void writeField(BufferedWriter writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            writer.write(value);
+            return;
         }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
     }
+
+    // Parsed on all cores straight from the mapped file, see ParallelCsvLoader
     public static HashTable<String, InventoryRecord> loadInventory(String filePath){
-        HashTable<String, InventoryRecord> inventory= new HashTable<>();
         try {
-            BufferedReader reader = new BufferedReader(new FileReader(filePath));
-            String line = reader.readLine();// skip the time
-            line = reader.readLine(); // skip the header
-            while ((line = reader.readLine()) != null) {
-
-                String[] lineSplit = line.split(",");
-                if (line.trim().isEmpty() || lineSplit.length < 5) continue;
-                InventoryRecord item = new InventoryRecord(lineSplit[0],lineSplit[1],Integer.parseInt(lineSplit[2]),Integer.parseInt(lineSplit[3]),Integer.parseInt(lineSplit[4]));
-                inventory.put(lineSplit[0],item);
-            }
-            reader.close();
+            return ParallelCsvLoader.load(Path.of(filePath));
+        } catch (NoSuchFileException e) {
+            System.out.println("Error: " + filePath + " (No such file or directory)");
+            return new HashTable<>();
         } catch (IOException e) {
             System.out.println("Error: " + e.getMessage());
+            return new HashTable<>();
         }
-
-        return inventory;
     }
 
 }
\ No newline at end of file
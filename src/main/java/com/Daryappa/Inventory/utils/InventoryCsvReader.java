@@ -0,0 +1,92 @@
+package com.Daryappa.Inventory.utils;
+
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+// Streams the rows of an inventory CSV in file order through memory-mapped windows, for
+// files too large to hold as one table. offset() is the byte position just after the last
+// row returned, so a reader opened at that offset continues exactly where this one stopped.
+// Header lines and rows that do not parse are skipped and counted.
+public class InventoryCsvReader implements AutoCloseable {
+    private static final int WINDOW = 64 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final LocalDate today = LocalDate.now();
+    private MappedByteBuffer window;
+    private CsvRecordParser parser;
+    private long windowStart;
+    private int lineStart;
+    private long offset;
+    private long skipped;
+
+    public InventoryCsvReader(Path file, long startOffset) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.offset = Math.min(startOffset, size);
+        this.windowStart = offset;
+    }
+
+    // The next row, or null at the end of the file
+    public InventoryRecord next() throws IOException {
+        while (true) {
+            if (window == null || lineStart >= window.limit()) {
+                if (!map()) return null;
+            }
+            int end = lineStart;
+            int limit = window.limit();
+            while (end < limit && window.get(end) != '\n') end++;
+            InventoryRecord item = parser.parse(lineStart, end, today);
+            lineStart = end + 1;
+            offset = windowStart + Math.min(lineStart, limit);
+            if (item != null) {
+                return item;
+            }
+            skipped++;
+        }
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Header, blank and malformed lines passed over so far
+    public long getSkippedCount() {
+        return skipped;
+    }
+
+    // Maps the next window, cut back to its last line break unless it reaches the end of the file
+    private boolean map() throws IOException {
+        windowStart = offset;
+        long length = Math.min(WINDOW, size - windowStart);
+        if (length <= 0) return false;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+        if (windowStart + length < size) {
+            int cut = (int) length;
+            while (cut > 0 && window.get(cut - 1) != '\n') cut--;
+            if (cut == 0) {
+                throw new IOException("Line longer than " + WINDOW + " bytes at offset " + windowStart);
+            }
+            window.limit(cut);
+        }
+        parser = new CsvRecordParser(window);
+        lineStart = 0;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
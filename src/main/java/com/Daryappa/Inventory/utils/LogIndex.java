@@ -0,0 +1,385 @@
+package com.Daryappa.Inventory.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import com.Daryappa.Inventory.ds.HashTable;
+
+// Sidecar index for a CSV transaction log, kept next to it as <log>.idx.
+// After a 24 byte header the file holds one fixed 24 byte record per log line:
+//   offset (long), length (int), day (int, yyyyMMdd), action hash (int), sku hash (int)
+// so a filter scans a few ints per line instead of reading and splitting the CSV, then
+// reads only the matching lines by offset. The index is derived data: TransactionLogger
+// appends to it as it writes, and whenever it is missing, lags behind the log or no
+// longer fits it, the next sync rebuilds or catches it up from the log itself.
+// The header records which log the index was built from: the log's file key (its
+// creation time where the file system has none) and a CRC of its first bytes, so a log
+// replaced by another of the same or a larger size is not mistaken for the old one.
+final class LogIndex {
+    static final int DAY = 12;
+    static final int ACTION = 16;
+    static final int SKU = 20;
+
+    private static final int MAGIC = 0x4C494458;  // "LIDX"
+    private static final int VERSION = 2;
+    // magic, version, log identity (long), prefix length (int), prefix CRC (int)
+    private static final int HEADER_SIZE = 24;
+    // how much of the start of the log the header CRC covers once the log is that long
+    private static final int PREFIX = 4096;
+    private static final int RECORD_SIZE = 24;
+    private static final String LOG_HEADER = "Date,Time,";
+
+    private static final HashTable<String, LogIndex> indexes = new HashTable<>();
+
+    private final Path log;
+    private final Path indexFile;
+    private FileChannel channel;
+    // records not yet written to the index file
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(RECORD_SIZE * 256);
+    // log bytes covered by the index including pending records, -1 until synced
+    private long coveredEnd = -1;
+    // log identity and prefix the index file was built from, as read from its header
+    private long identity;
+    private int prefixLength;
+    private int prefixCrc;
+
+    // Offsets and lengths of matching log lines, in log order
+    static final class Matches {
+        final long[] offsets;
+        final int[] lengths;
+        final int count;
+
+        Matches(long[] offsets, int[] lengths, int count) {
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.count = count;
+        }
+    }
+
+    private LogIndex(Path log) {
+        this.log = log;
+        this.indexFile = indexFileOf(log);
+    }
+
+    // One instance per log file, shared by the writer and the readers in this process
+    static synchronized LogIndex of(Path log) {
+        String key = log.toAbsolutePath().normalize().toString();
+        LogIndex index = indexes.get(key);
+        if (index == null) {
+            index = new LogIndex(log);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    // Closes and drops the instance for a log that is being renamed or deleted
+    static synchronized void forget(Path log) {
+        String key = log.toAbsolutePath().normalize().toString();
+        LogIndex index = indexes.get(key);
+        if (index != null) {
+            index.close();
+            indexes.remove(key);
+        }
+    }
+
+    static Path indexFileOf(Path log) {
+        return log.resolveSibling(log.getFileName() + ".idx");
+    }
+
+    // dd-MM-yyyy as yyyyMMdd, 0 if it is not a full date
+    static int dayKey(String date) {
+        if (date == null || date.length() != 10 || date.charAt(2) != '-' || date.charAt(5) != '-') {
+            return 0;
+        }
+        int day = digits(date, 0, 2);
+        int month = digits(date, 3, 5);
+        int year = digits(date, 6, 10);
+        if (day < 0 || month < 0 || year < 0) {
+            return 0;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    // Non-negative value of the digits in text[from, to), -1 if any is not a digit
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    static int actionKey(String action) {
+        return action == null ? 0 : action.toUpperCase().hashCode();
+    }
+
+    static int skuKey(String sku) {
+        return sku == null ? 0 : sku.hashCode();
+    }
+
+    // Called by the writer right after it appended a line at offset
+    synchronized void append(long offset, int length, String date, String action, String sku) {
+        try {
+            if (coveredEnd != offset) {
+                // unknown or lagging (first write, or an earlier failure): sync picks up this line too
+                sync();
+                return;
+            }
+            putRecord(offset, length, dayKey(date), actionKey(action), skuKey(sku));
+            if (!pending.hasRemaining()) {
+                writePending();
+            }
+        } catch (IOException e) {
+            reset();
+        }
+    }
+
+    // Writes pending records and releases the index file
+    synchronized void close() {
+        try {
+            writePending();
+        } catch (IOException ignored) {
+        }
+        reset();
+    }
+
+    // Lines whose key field equals key; candidates only, callers re-check the line itself
+    Matches find(int field, int key) throws IOException {
+        return find(field, key, key);
+    }
+
+    // Lines whose key field is within [minKey, maxKey], used for day ranges
+    synchronized Matches find(int field, int minKey, int maxKey) throws IOException {
+        if (!Files.exists(log)) {
+            return new Matches(new long[0], new int[0], 0);
+        }
+        sync();
+        long size = channel.size();
+        int records = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+        long[] offsets = new long[16];
+        int[] lengths = new int[16];
+        int count = 0;
+        if (records > 0) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) records * RECORD_SIZE);
+            for (int i = 0, base = 0; i < records; i++, base += RECORD_SIZE) {
+                int value = map.getInt(base + field);
+                if (value < minKey || value > maxKey) continue;
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+                offsets[count] = map.getLong(base);
+                lengths[count] = map.getInt(base + 8);
+                count++;
+            }
+        }
+        return new Matches(offsets, lengths, count);
+    }
+
+    // {first day, last day} (yyyyMMdd) over the lines of the log, {0, 0} if none has a date
+    synchronized int[] dayRange() throws IOException {
+        int[] range = {0, 0};
+        if (!Files.exists(log)) {
+            return range;
+        }
+        sync();
+        long size = channel.size();
+        int records = (int) ((size - HEADER_SIZE) / RECORD_SIZE);
+        if (records > 0) {
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, (long) records * RECORD_SIZE);
+            for (int i = 0, base = 0; i < records; i++, base += RECORD_SIZE) {
+                int day = map.getInt(base + DAY);
+                if (day == 0) continue;
+                if (range[0] == 0 || day < range[0]) range[0] = day;
+                if (day > range[1]) range[1] = day;
+            }
+        }
+        return range;
+    }
+
+    // Makes the index file describe every complete line of the log
+    private void sync() throws IOException {
+        open();
+        writePending();
+        boolean exists = Files.exists(log);
+        long logSize = exists ? Files.size(log) : 0;
+        long logIdentity = exists ? identityOf(log) : 0;
+        long end = lastCoveredOnDisk();
+        if (end > logSize || (end > 0 && !endsLine(end)) || !builtFrom(logIdentity, logSize)) {
+            // the log was truncated or replaced underneath the index
+            channel.truncate(HEADER_SIZE);
+            writeHeader(logIdentity, 0, 0);
+            end = 0;
+        }
+        coveredEnd = end;
+        if (end < logSize) {
+            indexRange(end, logSize);
+            writePending();
+        }
+        // the CRC grows with the log until it covers the whole prefix
+        if (prefixLength < PREFIX && coveredEnd > prefixLength) {
+            int length = (int) Math.min(coveredEnd, PREFIX);
+            writeHeader(logIdentity, length, prefixCrc(length));
+        }
+    }
+
+    // The file key identifies the file itself, so a log moved or copied over this one differs
+    private static long identityOf(Path log) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(log, BasicFileAttributes.class);
+        Object key = attributes.fileKey();
+        return key != null ? key.toString().hashCode() : attributes.creationTime().toMillis();
+    }
+
+    private boolean builtFrom(long logIdentity, long logSize) throws IOException {
+        return identity == logIdentity
+                && (prefixLength == 0 || (prefixLength <= logSize && prefixCrc(prefixLength) == prefixCrc));
+    }
+
+    // CRC of the first length bytes of the log
+    private int prefixCrc(int length) throws IOException {
+        try (FileChannel in = FileChannel.open(log, StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(length);
+            while (b.hasRemaining() && in.read(b, b.position()) > 0) {
+            }
+            b.flip();
+            CRC32 crc = new CRC32();
+            crc.update(b);
+            return (int) crc.getValue();
+        }
+    }
+
+    private void writeHeader(long logIdentity, int length, int crc) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(logIdentity).putInt(length).putInt(crc).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        identity = logIdentity;
+        prefixLength = length;
+        prefixCrc = crc;
+    }
+
+    private void open() throws IOException {
+        if (channel != null) return;
+        channel = FileChannel.open(indexFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        boolean valid = header.remaining() == HEADER_SIZE
+                && header.getInt() == MAGIC
+                && header.getInt() == VERSION
+                && (channel.size() - HEADER_SIZE) % RECORD_SIZE == 0;
+        if (valid) {
+            identity = header.getLong();
+            prefixLength = header.getInt();
+            prefixCrc = header.getInt();
+        } else {
+            // identity 0 matches no log, so the first sync starts the index over
+            channel.truncate(0);
+            writeHeader(0, 0, 0);
+        }
+    }
+
+    private long lastCoveredOnDisk() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE + RECORD_SIZE) return 0;
+        ByteBuffer last = ByteBuffer.allocate(12);
+        channel.read(last, size - RECORD_SIZE);
+        last.flip();
+        return last.getLong() + last.getInt();
+    }
+
+    private boolean endsLine(long end) throws IOException {
+        try (FileChannel in = FileChannel.open(log, StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            return in.read(b, end - 1) == 1 && b.get(0) == '\n';
+        }
+    }
+
+    // Indexes every complete line in [from, to) of the log
+    private void indexRange(long from, long to) throws IOException {
+        try (FileChannel in = FileChannel.open(log, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+            byte[] line = new byte[256];
+            int lineLength = 0;
+            long lineStart = from;
+            long position = from;
+            while (position < to) {
+                buf.clear();
+                if (to - position < buf.capacity()) buf.limit((int) (to - position));
+                int read = in.read(buf, position);
+                if (read <= 0) break;
+                position += read;
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    byte b = buf.get();
+                    if (b != '\n') {
+                        if (lineLength == line.length) line = Arrays.copyOf(line, lineLength * 2);
+                        line[lineLength++] = b;
+                        continue;
+                    }
+                    int length = lineLength + 1;
+                    indexLine(new String(line, 0, lineLength, StandardCharsets.UTF_8), lineStart, length);
+                    lineStart += length;
+                    lineLength = 0;
+                }
+            }
+            // a trailing line without its newline is still being written, leave it for later
+        }
+    }
+
+    private void indexLine(String text, long offset, int length) throws IOException {
+        if (!text.startsWith(LOG_HEADER)) {
+            String[] parts = text.split(",", 5);
+            putRecord(offset, length,
+                    dayKey(parts[0]),
+                    parts.length > 2 ? actionKey(parts[2]) : 0,
+                    parts.length > 3 ? skuKey(parts[3]) : 0);
+        } else {
+            coveredEnd = offset + length;
+        }
+        if (!pending.hasRemaining()) {
+            writePending();
+        }
+    }
+
+    private void putRecord(long offset, int length, int day, int action, int sku) {
+        pending.putLong(offset).putInt(length).putInt(day).putInt(action).putInt(sku);
+        coveredEnd = offset + length;
+    }
+
+    private void writePending() throws IOException {
+        if (pending.position() == 0 || channel == null) return;
+        pending.flip();
+        long position = channel.size();
+        while (pending.hasRemaining()) {
+            position += channel.write(pending, position);
+        }
+        pending.clear();
+    }
+
+    // Forgets all state; the next use re-syncs from the files
+    private void reset() {
+        pending.clear();
+        coveredEnd = -1;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+}
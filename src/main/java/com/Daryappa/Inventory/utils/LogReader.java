@@ -1,47 +1,138 @@
 package com.Daryappa.Inventory.utils;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
 
 public class LogReader {
 
+    private static final int NO_INDEX = -1;
+
+    // Only the segments whose date range includes that day are read, through their sidecar
+    // index (see LogIndex); partial dates are matched by scanning every segment
     public static List<String[]> filterByDate(String filePath, String date) {
+        Function<String, String[]> parse = line -> line.startsWith(date) ? line.split(",", -1) : null;
+        int day = LogIndex.dayKey(date);
+        if (day == 0) {
+            return filter(filePath, 0, Integer.MAX_VALUE, NO_INDEX, 0, 0, parse);
+        }
+        return filter(filePath, day, day, LogIndex.DAY, day, day, parse);
+    }
+
+    // Lines dated from..to inclusive, reading only the segments that overlap the window
+    public static List<String[]> filterByDateRange(String filePath, LocalDate from, LocalDate to) {
+        int fromDay = LogSegments.dayKey(from);
+        int toDay = LogSegments.dayKey(to);
+        return filter(filePath, fromDay, toDay, LogIndex.DAY, fromDay, toDay, line -> {
+            String[] parts = line.split(",", -1);
+            int day = LogIndex.dayKey(parts[0]);
+            return day >= fromDay && day <= toDay ? parts : null;
+        });
+    }
+
+    public static List<String[]> filterByAction(String filePath, String action) {
+        int key = LogIndex.actionKey(action);
+        return filter(filePath, 0, Integer.MAX_VALUE, LogIndex.ACTION, key, key, line -> {
+            String[] parts = line.split(",");
+            return parts.length >= 3 && parts[2].equalsIgnoreCase(action) ? parts : null;
+        });
+    }
+
+    public static List<String[]> filterBySku(String filePath, String sku) {
+        int key = LogIndex.skuKey(sku);
+        return filter(filePath, 0, Integer.MAX_VALUE, LogIndex.SKU, key, key, line -> {
+            String[] parts = line.split(",", -1);
+            return parts.length >= 4 && parts[3].equals(sku) ? parts : null;
+        });
+    }
+
+    // Matching lines from every segment overlapping [fromDay, toDay], oldest segment first.
+    // Plain segments are read through their index, gzipped ones (and any segment whose
+    // index fails) are scanned; parse returns null for lines that do not match.
+    private static List<String[]> filter(String filePath, int fromDay, int toDay,
+                                         int field, int minKey, int maxKey, Function<String, String[]> parse) {
         List<String[]> result = new ArrayList<>();
-        // We will implement this
-        try(BufferedReader reader = new BufferedReader(new FileReader(filePath))){
-            reader.readLine();
-            String line;
-            while((line=reader.readLine())!=null){
-                if (line.startsWith(date)){
-                    result.add(line.split(",",-1));
+        List<LogSegments.Segment> segments;
+        try {
+            segments = LogSegments.list(Path.of(filePath));
+        } catch (IOException e) {
+            System.out.println("logging file error:" + e.getMessage());
+            return result;
+        }
+        for (LogSegments.Segment segment : segments) {
+            if (!segment.overlaps(fromDay, toDay)) continue;
+            if (field != NO_INDEX && !segment.compressed) {
+                try {
+                    result.addAll(readMatches(segment.path, LogIndex.of(segment.path).find(field, minKey, maxKey), parse));
+                    continue;
+                } catch (IOException e) {
+                    System.out.println("log index error:" + e.getMessage());
                 }
             }
-        }catch (IOException e){
-            System.out.println("logging file error:"+ e.getMessage());
+            scan(segment.path, segment.compressed, parse, result);
         }
         return result;
     }
 
-    public static List<String[]> filterByAction(String filePath, String action) {
+    // Reads the candidate lines by offset; parse returns null for hash collisions
+    private static List<String[]> readMatches(Path log, LogIndex.Matches matches,
+                                              Function<String, String[]> parse) throws IOException {
         List<String[]> result = new ArrayList<>();
-        try(BufferedReader reader = new BufferedReader(new FileReader(filePath))){
-            reader.readLine();
-            String line;
-            while((line=reader.readLine())!=null){
-                String[] parts=line.split(",");
-                if (parts.length >= 3 && parts[2].equalsIgnoreCase(action)) {
+        if (matches.count == 0) {
+            return result;
+        }
+        try (FileChannel in = FileChannel.open(log, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(256);
+            for (int i = 0; i < matches.count; i++) {
+                int length = matches.lengths[i];
+                if (buf.capacity() < length) buf = ByteBuffer.allocate(length);
+                buf.clear().limit(length);
+                long position = matches.offsets[i];
+                while (buf.hasRemaining() && in.read(buf, position + buf.position()) > 0) {
+                }
+                // the log shrank or was rewritten since the index was checked: let the
+                // caller fall back to scanning
+                if (length <= 0 || buf.position() < length || buf.get(length - 1) != '\n') {
+                    throw new IOException("index of " + log + " is stale at offset " + position);
+                }
+                // drop the trailing newline
+                String line = new String(buf.array(), 0, buf.position() - 1, StandardCharsets.UTF_8);
+                String[] parts = parse.apply(line);
+                if (parts != null) {
                     result.add(parts);
                 }
             }
-        }catch (IOException e){
-            System.out.println("logging file error:"+ e.getMessage());
         }
         return result;
     }
 
+    private static void scan(Path segment, boolean compressed, Function<String, String[]> parse, List<String[]> result) {
+        try (InputStream file = Files.newInputStream(segment);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     compressed ? new GZIPInputStream(file, 64 * 1024) : file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("Date,Time,")) continue;
+                String[] parts = parse.apply(line);
+                if (parts != null) {
+                    result.add(parts);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("logging file error:" + e.getMessage());
+        }
+    }
+
     public static void exportToFile(List<String[]> data, String action) {
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
         DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH-mm-ss");
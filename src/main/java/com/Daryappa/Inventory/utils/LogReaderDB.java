@@ -1,19 +1,31 @@
 package com.Daryappa.Inventory.utils;
 
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import com.Daryappa.Inventory.db.TransactionLogDAO;
+import com.Daryappa.Inventory.model.LogEntry;
 
 public class LogReaderDB {
     private static final TransactionLogDAO logDAO = new TransactionLogDAO();
+    private static final String EXPORT_DIR = "src/main/java/com/Daryappa/Inventory/exports";
+    private static final String HEADER = "Date,Time,Action,SKU,Quantity,ItemName";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("HH-mm-ss");
     
     public static List<String[]> filterByAction(String action) {
+        // make sure entries still buffered by the async writer are included
+        TransactionLoggerDB.flush();
         try {
             return logDAO.getLogsByAction(action);
         } catch (SQLException e) {
@@ -24,6 +36,7 @@ public class LogReaderDB {
     }
     
     public static List<String[]> filterByDate(String date) {
+        TransactionLoggerDB.flush();
         try {
             return logDAO.getLogsByDate(date);
         } catch (SQLException e) {
@@ -34,6 +47,7 @@ public class LogReaderDB {
     }
     
     public static List<String[]> getAllLogs() {
+        TransactionLoggerDB.flush();
         try {
             return logDAO.getAllLogs();
         } catch (SQLException e) {
@@ -42,25 +56,103 @@ public class LogReaderDB {
         }
     }
     
+    // Streams the logs for one action into a CSV export; returns the number of rows written
+    public static long exportByAction(String action, boolean gzip) {
+        TransactionLoggerDB.flush();
+        return export(action, gzip,
+                sink -> logDAO.forEachLogByAction(action, sink),
+                () -> LogReader.filterByAction("log.csv", action));
+    }
+    
+    // Streams the logs of one day (dd-MM-yyyy) into a CSV export; returns the number of rows written
+    public static long exportByDate(String date, boolean gzip) {
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date.trim(), DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date: " + date);
+            return 0;
+        }
+        TransactionLoggerDB.flush();
+        return export("FILTERED", gzip,
+                sink -> logDAO.forEachLogBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), sink),
+                () -> LogReader.filterByDate("log.csv", date));
+    }
+    
     public static void exportToFile(List<String[]> data, String prefix) {
-        DateTimeFormatter formatter1 = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-        DateTimeFormatter formatter2 = DateTimeFormatter.ofPattern("HH-mm-ss");
-        
-        String date = LocalDate.now().format(formatter1);
-        String time = LocalTime.now().format(formatter2);
-        String filename = "src/main/java/com/Daryappa/Inventory/exports/" + prefix + "_" + date + "_" + time + ".csv";
+        Path path = exportPath(prefix, false);
         
-        try (FileWriter writer = new FileWriter(filename)) {
-            writer.write("Date,Time,Action,SKU,Quantity,ItemName\n");
-            
+        try (CsvExportWriter writer = new CsvExportWriter(path, false)) {
+            writer.writeHeader(HEADER);
             for (String[] row : data) {
-                writer.write(String.join(",", row) + "\n");
+                writer.writeRow(row);
             }
             
-            System.out.println("✅ Exported to: " + filename);
+            System.out.println("✅ Exported to: " + path);
             
         } catch (IOException e) {
             System.err.println("Error exporting to file: " + e.getMessage());
         }
     }
+    
+    private interface LogSource {
+        long forEach(Consumer<LogEntry> sink) throws SQLException;
+    }
+    
+    // Rows go from the database cursor to the file one at a time, nothing is collected in between.
+    // If the database fails part way, the file is rewritten from the CSV log instead, so it never
+    // holds a cut-off export. Files that end up empty or that could not be written are removed.
+    private static long export(String prefix, boolean gzip, LogSource source, Supplier<List<String[]>> fallback) {
+        Path path = exportPath(prefix, gzip);
+        long rows;
+        
+        try {
+            try (CsvExportWriter writer = new CsvExportWriter(path, gzip)) {
+                writer.writeHeader(HEADER);
+                source.forEach(entry -> {
+                    try {
+                        writer.writeRow(entry);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                rows = writer.getRowCount();
+            } catch (SQLException e) {
+                System.err.println("Error exporting logs from database: " + e.getMessage());
+                // Fallback to file-based system; opening the writer again truncates the partial file
+                try (CsvExportWriter writer = new CsvExportWriter(path, gzip)) {
+                    writer.writeHeader(HEADER);
+                    for (String[] row : fallback.get()) {
+                        writer.writeRow(row);
+                    }
+                    rows = writer.getRowCount();
+                }
+            }
+            
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error exporting to file: " + e.getMessage());
+            deleteQuietly(path);
+            return 0;
+        }
+        
+        if (rows == 0) {
+            deleteQuietly(path);
+        } else {
+            System.out.println("✅ Exported " + rows + " rows to: " + path);
+        }
+        return rows;
+    }
+    
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+    
+    private static Path exportPath(String prefix, boolean gzip) {
+        String date = LocalDate.now().format(DATE_FORMAT);
+        String time = LocalTime.now().format(FILE_TIME_FORMAT);
+        return Path.of(EXPORT_DIR, prefix + "_" + date + "_" + time + (gzip ? ".csv.gz" : ".csv"));
+    }
 }
@@ -0,0 +1,145 @@
+package com.Daryappa.Inventory.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Segments of a rotating CSV log. The active segment keeps the configured name (log.csv);
+// sealed segments sit next to it as log.<minDay>-<maxDay>.<seq>.csv, with the first and
+// last day (yyyyMMdd) of their lines in the name, so a date query can skip a segment
+// without opening it. Old sealed segments are gzipped to .csv.gz and eventually deleted.
+final class LogSegments {
+
+    static final class Segment {
+        final Path path;
+        final int minDay;  // yyyyMMdd, 0 for the active segment (range unknown)
+        final int maxDay;
+        final int seq;
+        final boolean compressed;
+        final boolean active;
+
+        Segment(Path path, int minDay, int maxDay, int seq, boolean compressed, boolean active) {
+            this.path = path;
+            this.minDay = minDay;
+            this.maxDay = maxDay;
+            this.seq = seq;
+            this.compressed = compressed;
+            this.active = active;
+        }
+
+        boolean overlaps(int fromDay, int toDay) {
+            return active || (minDay <= toDay && maxDay >= fromDay);
+        }
+    }
+
+    private LogSegments() {
+    }
+
+    // Sealed segments oldest first, then the active one if it exists
+    static List<Segment> list(Path active) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        Path dir = directoryOf(active);
+        Pattern pattern = sealedPattern(active);
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Matcher m = pattern.matcher(file.getFileName().toString());
+                    if (m.matches()) {
+                        segments.add(new Segment(file, Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)),
+                                Integer.parseInt(m.group(3)), m.group(4) != null, false));
+                    }
+                }
+            }
+        }
+        segments.sort((a, b) -> a.minDay != b.minDay ? Integer.compare(a.minDay, b.minDay)
+                : a.maxDay != b.maxDay ? Integer.compare(a.maxDay, b.maxDay) : Integer.compare(a.seq, b.seq));
+        if (Files.exists(active)) {
+            segments.add(new Segment(active, 0, 0, 0, false, true));
+        }
+        return segments;
+    }
+
+    // Renames the (closed) active segment and its index to the next sealed name
+    static Path seal(Path active, int minDay, int maxDay) throws IOException {
+        // the instance stays registered, it picks up the fresh active segment on next use
+        LogIndex.of(active).close();
+        int seq = 1;
+        for (Segment segment : list(active)) {
+            if (!segment.active && segment.minDay == minDay && segment.maxDay == maxDay) {
+                seq = Math.max(seq, segment.seq + 1);
+            }
+        }
+        Path sealed = directoryOf(active).resolve(baseName(active) + "." + minDay + "-" + maxDay + "." + seq + ".csv");
+        Files.move(active, sealed);
+        Path index = LogIndex.indexFileOf(active);
+        if (Files.exists(index)) {
+            Files.move(index, LogIndex.indexFileOf(sealed), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return sealed;
+    }
+
+    // Gzips sealed segments whose last day is more than compressAfterDays ago and deletes
+    // segments whose last day is more than retentionDays ago; 0 turns either step off
+    static void applyRetention(Path active, int compressAfterDays, int retentionDays) throws IOException {
+        LocalDate today = LocalDate.now();
+        int compressBefore = compressAfterDays > 0 ? dayKey(today.minusDays(compressAfterDays)) : 0;
+        int deleteBefore = retentionDays > 0 ? dayKey(today.minusDays(retentionDays)) : 0;
+        for (Segment segment : list(active)) {
+            if (segment.active) continue;
+            if (segment.maxDay < deleteBefore) {
+                delete(segment);
+            } else if (!segment.compressed && segment.maxDay < compressBefore) {
+                compress(segment);
+            }
+        }
+    }
+
+    private static void compress(Segment segment) throws IOException {
+        Path gz = segment.path.resolveSibling(segment.path.getFileName() + ".gz");
+        Path tmp = gz.resolveSibling(gz.getFileName() + ".tmp");
+        try (InputStream in = Files.newInputStream(segment.path);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+            in.transferTo(out);
+        }
+        Files.move(tmp, gz, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // compressed segments are scanned as a stream, the byte-offset index no longer applies
+        delete(segment);
+    }
+
+    private static void delete(Segment segment) throws IOException {
+        if (!segment.compressed) {
+            LogIndex.forget(segment.path);
+            Files.deleteIfExists(LogIndex.indexFileOf(segment.path));
+        }
+        Files.deleteIfExists(segment.path);
+    }
+
+    static int dayKey(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    private static Path directoryOf(Path active) {
+        Path parent = active.toAbsolutePath().getParent();
+        return parent != null ? parent : Path.of(".");
+    }
+
+    // log.csv -> log
+    private static String baseName(Path active) {
+        String name = active.getFileName().toString();
+        return name.endsWith(".csv") ? name.substring(0, name.length() - 4) : name;
+    }
+
+    private static Pattern sealedPattern(Path active) {
+        return Pattern.compile(Pattern.quote(baseName(active)) + "\\.(\\d{8})-(\\d{8})\\.(\\d+)\\.csv(\\.gz)?");
+    }
+}
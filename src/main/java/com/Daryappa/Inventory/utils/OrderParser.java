@@ -0,0 +1,28 @@
+package com.Daryappa.Inventory.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Order and delivery lines as typed into the CLIs, shared by InventoryCLI and InventoryCLIDB
+public final class OrderParser {
+
+    private OrderParser() {
+    }
+
+    // "A1:3, B2:5" -> {A1=3, B2=5}; repeated SKUs are added together
+    public static Map<String, Integer> parse(String input) {
+        Map<String, Integer> lines = new LinkedHashMap<>();
+        for (String part : input.split(",")) {
+            String[] fields = part.trim().split(":");
+            if (fields.length != 2 || fields[0].isBlank()) {
+                throw new IllegalArgumentException("Bad order line: " + part);
+            }
+            int qty = Integer.parseInt(fields[1].trim());
+            if (qty <= 0) {
+                throw new IllegalArgumentException("Bad quantity: " + part);
+            }
+            lines.merge(fields[0].trim(), qty, Integer::sum);
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,117 @@
+package com.Daryappa.Inventory.utils;
+
+import com.Daryappa.Inventory.ds.HashTable;
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Loads the inventory CSV (saved-at line, header, then sku,name,quantity,threshold,
+// shelfLife[,receivedDate] rows) on all cores. The file is split into chunks that end on a
+// line break, each chunk is memory-mapped and parsed byte by byte on the common ForkJoin
+// pool, and the per-chunk rows are then put into one table sized for all of them, in file
+// order so a later row for a SKU still wins. Fields are read straight from the mapped
+// bytes, no line Strings or String[] per row. Rows that are blank, short or have a bad
+// number or date are skipped.
+final class ParallelCsvLoader {
+    private static final int MIN_CHUNK = 1 << 20;
+    private static final int MAX_CHUNK = 1 << 28;
+    private static final int HEADER_LINES = 2;
+
+    private ParallelCsvLoader() {
+    }
+
+    static HashTable<String, InventoryRecord> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            for (int i = 0; i < HEADER_LINES; i++) {
+                start = nextLineStart(channel, start, size);
+            }
+
+            List<Callable<List<InventoryRecord>>> tasks = new ArrayList<>();
+            long chunk = Math.clamp((size - start) / (ForkJoinPool.getCommonPoolParallelism() * 4L), MIN_CHUNK, MAX_CHUNK);
+            while (start < size) {
+                long end = start + chunk >= size ? size : nextLineStart(channel, start + chunk - 1, size);
+                long from = start;
+                tasks.add(() -> parse(channel, from, end));
+                start = end;
+            }
+
+            List<List<InventoryRecord>> parts = new ArrayList<>(tasks.size());
+            int total = 0;
+            for (Future<List<InventoryRecord>> result : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                List<InventoryRecord> part = join(result);
+                parts.add(part);
+                total += part.size();
+            }
+            HashTable<String, InventoryRecord> inventory = new HashTable<>(total);
+            for (List<InventoryRecord> part : parts) {
+                for (InventoryRecord item : part) {
+                    inventory.put(item.getSku(), item);
+                }
+            }
+            return inventory;
+        }
+    }
+
+    private static List<InventoryRecord> join(Future<List<InventoryRecord>> result) throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Inventory load interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // Position just after the first line break at or after position, or size if there is none
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8 * 1024);
+        while (position < size) {
+            buf.clear();
+            int read = channel.read(buf, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buf.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static List<InventoryRecord> parse(FileChannel channel, long from, long to) throws IOException {
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        int length = map.limit();
+        List<InventoryRecord> records = new ArrayList<>(Math.min(length / 32 + 1, 1 << 20));
+        LocalDate today = LocalDate.now();
+        CsvRecordParser line = new CsvRecordParser(map);
+        int lineStart = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && map.get(i) != '\n') continue;
+            InventoryRecord item = line.parse(lineStart, i, today);
+            if (item != null) {
+                records.add(item);
+            }
+            lineStart = i + 1;
+        }
+        return records;
+    }
+}
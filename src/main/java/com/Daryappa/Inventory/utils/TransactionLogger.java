@@ -1,40 +1,338 @@
 package com.Daryappa.Inventory.utils;
 
-import java.io.File;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
-import java.time.LocalTime;
-
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import java.io.FileWriter;
-import java.io.IOException;
+import com.Daryappa.Inventory.model.LogEntry;
 
+// Appends transactions to log.csv through one long-lived FileChannel, and records each
+// line in the log.csv.idx sidecar index (see LogIndex).
+// Each line is encoded into a reused direct buffer and written straight to the channel,
+// so every entry reaches the OS before log() returns. When it reaches the disk depends
+// on the durability policy, set with -Dinventory.log.durability:
+//   EVERY_ENTRY  fsync after every entry
+//   GROUP        fsync at most every -Dinventory.log.syncIntervalMs (default 100ms) on a background thread
+//   OS_BUFFERED  never fsync, leave it to the OS (what the old FileWriter did)
+// The log is split into segments (see LogSegments), rotated by -Dinventory.log.rotation:
+//   DAILY  start a new segment on the first entry of each day (default)
+//   SIZE   start a new segment once it would grow past -Dinventory.log.maxSegmentMB (default 64)
+//   NONE   a single ever-growing log.csv
+// Sealed segments are gzipped after -Dinventory.log.compressAfterDays (default 7) and deleted
+// after -Dinventory.log.retentionDays (default 0, keep forever).
 public class TransactionLogger {
-    public static void log(String actionType, String sku, int qty, String Name){
+    public enum Durability { EVERY_ENTRY, GROUP, OS_BUFFERED }
+    public enum Rotation { DAILY, SIZE, NONE }
+
+    private static final String HEADER = "Date,Time,Action,SKU,Quantity,ItemName\n";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    private static final Path LOG_FILE = Path.of(System.getProperty("inventory.log.file", "log.csv"));
+    private static final Durability DURABILITY =
+            enumProperty("inventory.log.durability", Durability.class, Durability.GROUP);
+    private static final Rotation ROTATION =
+            enumProperty("inventory.log.rotation", Rotation.class, Rotation.DAILY);
+    private static final long MAX_SEGMENT_BYTES = Long.getLong("inventory.log.maxSegmentMB", 64) * 1024 * 1024;
+    private static final int COMPRESS_AFTER_DAYS = Integer.getInteger("inventory.log.compressAfterDays", 7);
+    private static final int RETENTION_DAYS = Integer.getInteger("inventory.log.retentionDays", 0);
+    private static final long SYNC_INTERVAL_MS = Long.getLong("inventory.log.syncIntervalMs", 100);
+    // byte offsets of every line by date, action and SKU, for LogReader
+    private static final LogIndex index = LogIndex.of(LOG_FILE);
 
-        DateTimeFormatter formatter1 = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-        DateTimeFormatter formatter2 = DateTimeFormatter.ofPattern("HH:mm:ss");
+    // all guarded by the class lock
+    private static FileChannel channel;
+    private static long position;  // end of the log, where the next line starts
+    private static int segmentMinDay;  // yyyyMMdd range of the lines in the active segment, 0 if none
+    private static int segmentMaxDay;
+    private static int segmentStartDay;  // wall-clock day the active segment was started, for DAILY
+    private static final ByteBuffer buffer = ByteBuffer.allocateDirect(8192);
+    private static final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private static final StringBuilder line = new StringBuilder(128);
+    private static long cachedSecond = Long.MIN_VALUE;
+    private static String cachedDate;
+    private static String cachedTime;
+    private static int cachedDay;
 
-        String date = LocalDate.now().format(formatter1);
-        String time = LocalTime.now().format(formatter2);
-        File file = new File("log.csv");
-        boolean newFile = !file.exists() || file.length() == 0;
-        try(FileWriter writer = new FileWriter(file, true)){
-            if (newFile) {
-                writer.write("Date,Time,Action,SKU,Quantity,ItemName\n");
+    // set by writers, cleared by the GROUP sync thread
+    private static volatile boolean dirty;
+    private static final AtomicBoolean retentionRunning = new AtomicBoolean();
+
+    static {
+        if (DURABILITY == Durability.GROUP) {
+            Thread syncer = new Thread(TransactionLogger::syncLoop, "transaction-log-sync");
+            syncer.setDaemon(true);
+            syncer.start();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(TransactionLogger::close, "transaction-log-close"));
+    }
+
+    public static void log(String actionType, String sku, int qty, String Name){
+        synchronized (TransactionLogger.class) {
+            refreshClock();
+            commit(append(cachedDate, cachedTime, actionType, sku, qty, Name));
+        }
+    }
+
+    // Appends one line per order line under a single lock and timestamp, with one fsync
+    // for the lot under EVERY_ENTRY
+    public static void logAll(String actionType, Map<String, Integer> lines){
+        synchronized (TransactionLogger.class) {
+            refreshClock();
+            FileChannel out = null;
+            for (Map.Entry<String, Integer> entry : lines.entrySet()) {
+                out = append(cachedDate, cachedTime, actionType, entry.getKey(), entry.getValue(), null);
             }
-            String line= date + "," +
-                    time + "," +
-                    actionType + "," +
-                    sku + "," +
-                    qty + "," +
-                    Name + "\n";
-            writer.write(line);
+            commit(out);
+        }
+    }
+
+    // Appends an entry that already carries its own date and time
+    public static void log(LogEntry entry){
+        synchronized (TransactionLogger.class) {
+            commit(append(entry.getDate(), entry.getTime(), entry.getAction(), entry.getSku(),
+                    entry.getQuantity(), entry.getItemName()));
+        }
+    }
 
+    // Forces everything written so far to disk, whatever the policy
+    public static void flush() {
+        FileChannel current;
+        synchronized (TransactionLogger.class) {
+            current = channel;
+        }
+        if (current != null) {
+            force(current);
+        }
+    }
 
-        }catch (IOException e){
+    public static synchronized void close() {
+        index.close();
+        if (channel == null) {
+            return;
+        }
+        force(channel);
+        try {
+            channel.close();
+        } catch (IOException e) {
             System.out.println("File Error:" + e.getMessage());
         }
+        channel = null;
+    }
+
+    private static <E extends Enum<E>> E enumProperty(String name, Class<E> type, E fallback) {
+        String value = System.getProperty(name, fallback.name());
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown " + name + " '" + value + "', using " + fallback);
+            return fallback;
+        }
+    }
+
+    // Date and time strings only change once a second, so they are formatted once per second
+    private static void refreshClock() {
+        long second = System.currentTimeMillis() / 1000;
+        if (second != cachedSecond) {
+            LocalDateTime now = LocalDateTime.now();
+            cachedDate = now.format(DATE_FORMAT);
+            cachedTime = now.format(TIME_FORMAT);
+            cachedDay = LogIndex.dayKey(cachedDate);
+            cachedSecond = second;
+        }
+    }
+
+    // Returns the channel the line went to, or null if it could not be written
+    private static FileChannel append(String date, String time, String action, String sku, int qty, String name) {
+        line.setLength(0);
+        line.append(date).append(',')
+                .append(time).append(',')
+                .append(action).append(',')
+                .append(sku).append(',')
+                .append(qty).append(',')
+                .append(name).append('\n');
+        try {
+            FileChannel out = open();
+            if (shouldRotate(line.length())) {
+                rotate();
+                out = open();
+            }
+            long offset = position;
+            int length = write(out, line);
+            position += length;
+            index.append(offset, length, date, action, sku);
+            trackDay(LogIndex.dayKey(date));
+            return out;
+        } catch (IOException e) {
+            System.out.println("File Error:" + e.getMessage());
+            // reopen on the next entry
+            closeQuietly();
+            return null;
+        }
+    }
+
+    // Applies the durability policy to what append() just wrote
+    private static void commit(FileChannel out) {
+        if (out == null) {
+            return;
+        }
+        if (DURABILITY == Durability.EVERY_ENTRY) {
+            try {
+                out.force(false);
+            } catch (IOException e) {
+                System.out.println("File Error:" + e.getMessage());
+                closeQuietly();
+            }
+        } else {
+            dirty = true;
+        }
+    }
+
+    private static boolean shouldRotate(int nextLineLength) {
+        if (position <= HEADER.length()) {
+            return false;  // nothing but the header yet
+        }
+        switch (ROTATION) {
+            case DAILY:
+                refreshClock();
+                return segmentStartDay != 0 && segmentStartDay != cachedDay;
+            case SIZE:
+                return position + nextLineLength > MAX_SEGMENT_BYTES;
+            default:
+                return false;
+        }
+    }
+
+    private static void trackDay(int day) {
+        if (segmentStartDay == 0) {
+            refreshClock();
+            segmentStartDay = cachedDay;
+        }
+        if (day == 0) return;
+        if (segmentMinDay == 0 || day < segmentMinDay) segmentMinDay = day;
+        if (day > segmentMaxDay) segmentMaxDay = day;
+    }
+
+    // Seals the active segment under its date range; the next write starts a fresh log.csv
+    private static void rotate() throws IOException {
+        int minDay = segmentMinDay != 0 ? segmentMinDay : segmentStartDay;
+        int maxDay = segmentMaxDay != 0 ? segmentMaxDay : segmentStartDay;
+        if (DURABILITY != Durability.OS_BUFFERED) {
+            force(channel);
+        }
+        closeQuietly();
+        LogSegments.seal(LOG_FILE, minDay, maxDay);
+        segmentMinDay = segmentMaxDay = segmentStartDay = 0;
+    }
+
+    // Gzips and deletes old segments off the writer's thread
+    private static void applyRetentionInBackground() {
+        if (!retentionRunning.compareAndSet(false, true)) return;
+        Thread worker = new Thread(() -> {
+            try {
+                LogSegments.applyRetention(LOG_FILE, COMPRESS_AFTER_DAYS, RETENTION_DAYS);
+            } catch (IOException e) {
+                System.out.println("File Error:" + e.getMessage());
+            } finally {
+                retentionRunning.set(false);
+            }
+        }, "transaction-log-retention");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static FileChannel open() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(LOG_FILE,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            position = channel.size();
+            if (position == 0) {
+                position += write(channel, HEADER);
+            } else if (position > HEADER.length()) {
+                // picking up an existing segment after a restart
+                int[] days = index.dayRange();
+                segmentMinDay = days[0];
+                segmentMaxDay = days[1];
+                segmentStartDay = LogSegments.dayKey(LocalDate.ofInstant(
+                        Files.getLastModifiedTime(LOG_FILE).toInstant(), ZoneId.systemDefault()));
+            }
+            applyRetentionInBackground();
+        }
+        return channel;
+    }
+
+    // Returns the number of bytes written
+    private static int write(FileChannel out, CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        buffer.clear();
+        int written = 0;
+        // lines longer than the buffer are written out in pieces
+        while (encoder.encode(chars, buffer, true).isOverflow()) {
+            written += drain(out);
+        }
+        while (encoder.flush(buffer).isOverflow()) {
+            written += drain(out);
+        }
+        return written + drain(out);
     }
 
+    private static int drain(FileChannel out) throws IOException {
+        buffer.flip();
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += out.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+
+    private static void force(FileChannel out) {
+        try {
+            dirty = false;
+            out.force(false);
+        } catch (IOException e) {
+            // a concurrent close() already synced and released the channel
+            if (out.isOpen()) {
+                System.out.println("File Error:" + e.getMessage());
+            }
+        }
+    }
+
+    private static void closeQuietly() {
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    // GROUP policy: fsync outside the lock so writers never wait on the disk
+    private static void syncLoop() {
+        while (true) {
+            try {
+                Thread.sleep(SYNC_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (dirty) {
+                flush();
+            }
+        }
+    }
 }
@@ -1,28 +1,43 @@
 package com.Daryappa.Inventory.utils;
 
-import java.sql.SQLException;
-import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
 
 import com.Daryappa.Inventory.db.TransactionLogDAO;
+import com.Daryappa.Inventory.model.LogEntry;
 
 public class TransactionLoggerDB {
-    private static final TransactionLogDAO logDAO = new TransactionLogDAO();
+    // entries are written in batches on a background thread, see AsyncLogWriter
+    private static final AsyncLogWriter writer = new AsyncLogWriter(new TransactionLogDAO());
     
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(writer::close, "transaction-log-shutdown"));
+    }
+    
+    // Stamps the entry now and hands it to the background writer
     public static void log(String actionType, String sku, int qty, String name) {
-        DateTimeFormatter formatter1 = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-        DateTimeFormatter formatter2 = DateTimeFormatter.ofPattern("HH:mm:ss");
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         
-        String date = LocalDate.now().format(formatter1);
-        String time = LocalTime.now().format(formatter2);
+        writer.enqueue(new LogEntry(now, actionType, sku, qty, name));
+    }
+    
+    // Stamps every line of an order with the same time and hands them over together
+    public static void logAll(String actionType, Map<String, Integer> lines) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         
-        try {
-            logDAO.logTransaction(date, time, actionType, sku, qty, name);
-        } catch (SQLException e) {
-            System.err.println("Error logging transaction to database: " + e.getMessage());
-            // Fallback to file-based logging
-            TransactionLogger.log(actionType, sku, qty, name);
+        for (Map.Entry<String, Integer> line : lines.entrySet()) {
+            writer.enqueue(new LogEntry(now, actionType, line.getKey(), line.getValue(), null));
         }
     }
+    
+    // Waits until everything logged so far is in the database
+    public static void flush() {
+        writer.flush();
+    }
+    
+    // Writes out pending entries and stops the background writer
+    public static void shutdown() {
+        writer.close();
+    }
 }
@@ -0,0 +1,409 @@
+package com.Daryappa.Inventory.utils;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+// Write-ahead log of inventory changes for legacy file mode.
+// Every add, sell and receive is appended as one record with the next sequence number:
+//   payload length (int), CRC32 of payload (int), payload:
+//   seq (long), type (byte), sku, then ADD: name, quantity, threshold, shelf life, received day
+//                                       SELL: quantity
+//                                       RECEIVE: quantity, day it was received
+//   or seq, type, line count, then SELL_ALL: (sku, quantity) per line
+//                                  RECEIVE_ALL: (sku, quantity) per line, day it was received
+// Strings are an int byte length followed by UTF-8. Records go to files named
+// inventory.wal.<first seq>; a checkpoint rolls to a new file so files fully covered by a
+// snapshot can be deleted. Appending only writes to the OS; sync(seq) makes it durable and
+// lets callers waiting at the same time share one fsync.
+public class WriteAheadLog implements AutoCloseable {
+    private static final byte ADD = 1;
+    private static final byte SELL = 2;
+    private static final byte RECEIVE = 3;
+    // a whole order in one record, so replay applies all of its lines or none
+    private static final byte SELL_ALL = 4;
+    private static final byte RECEIVE_ALL = 5;
+    private static final String PREFIX = "inventory.wal.";
+    // replay treats a longer payload as corrupt, so appending one is refused
+    private static final int MAX_RECORD = 1 << 24;
+    // length, checksum, seq and type
+    private static final int HEADER = 4 + 4 + 8 + 1;
+
+    // Applies replayed records, see replay
+    public interface Replayer {
+        void add(InventoryRecord record);
+        void sell(String sku, int qty);
+        void receive(String sku, int qty, LocalDate receivedOn);
+    }
+
+    private final Path dir;
+    private final boolean fsync;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private final CRC32 crc = new CRC32();
+    // a lock rather than a monitor: waiters on a virtual thread unmount while another
+    // caller's fsync is in progress instead of pinning their carrier thread
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // guarded by this
+    private FileChannel channel;
+    private long lastSeq;
+    // set when a failed write left a torn record that could not be cut off; nothing
+    // appended after it would be replayed, so appending stops
+    private IOException broken;
+    // highest seq known to be on disk
+    private volatile long syncedSeq;
+
+    // Opens the log for appending after the given sequence number (the last one recovered).
+    // Files starting after it hold records replay could not reach (past a corrupt record or
+    // a gap); they are deleted so they can never be mistaken for the new records' successors.
+    public WriteAheadLog(Path dir, long lastSeq, boolean fsync) throws IOException {
+        this.dir = dir;
+        this.fsync = fsync;
+        this.lastSeq = lastSeq;
+        this.syncedSeq = lastSeq;
+        Files.createDirectories(dir);
+        for (long firstSeq : listFiles(dir)) {
+            if (firstSeq > lastSeq) {
+                Files.deleteIfExists(fileFor(dir, firstSeq));
+            }
+        }
+        this.channel = openFile(lastSeq + 1);
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    public synchronized long appendAdd(InventoryRecord record) {
+        start(ADD, stringBytes(record.getSku()) + stringBytes(record.getName()) + 4 + 4 + 4 + 8);
+        putString(record.getSku());
+        putString(record.getName());
+        buffer.putInt(record.getQuantity());
+        buffer.putInt(record.getReorderThreshold());
+        buffer.putInt(record.getShelfLifeDays());
+        buffer.putLong(record.getReceivedDate().toEpochDay());
+        return finish();
+    }
+
+    public synchronized long appendSell(String sku, int qty) {
+        start(SELL, stringBytes(sku) + 4);
+        putString(sku);
+        buffer.putInt(qty);
+        return finish();
+    }
+
+    public synchronized long appendReceive(String sku, int qty, LocalDate receivedOn) {
+        start(RECEIVE, stringBytes(sku) + 4 + 8);
+        putString(sku);
+        buffer.putInt(qty);
+        buffer.putLong(receivedOn.toEpochDay());
+        return finish();
+    }
+
+    public synchronized long appendSellAll(Map<String, Integer> lines) {
+        startBatch(SELL_ALL, lines);
+        return finish();
+    }
+
+    public synchronized long appendReceiveAll(Map<String, Integer> lines, LocalDate receivedOn) {
+        startBatch(RECEIVE_ALL, lines);
+        buffer.putLong(receivedOn.toEpochDay());
+        return finish();
+    }
+
+    // Returns once the record with this seq (and everything before it) is on disk
+    public void sync(long seq) {
+        if (!fsync || syncedSeq >= seq) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            // someone else's fsync may have covered us while we waited
+            if (syncedSeq >= seq) {
+                return;
+            }
+            FileChannel current;
+            long target;
+            synchronized (this) {
+                current = channel;
+                target = lastSeq;
+            }
+            try {
+                current.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            syncedSeq = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Starts a new file after the current last seq and returns that seq. Callers hold off
+    // writers while rolling, so the returned seq matches the state they are snapshotting.
+    public synchronized long roll() {
+        try {
+            channel.force(false);
+            channel.close();
+            channel = openFile(lastSeq + 1);
+            syncedSeq = Math.max(syncedSeq, lastSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lastSeq;
+    }
+
+    // Deletes the files whose records are all at or below seq (covered by a snapshot)
+    public void deleteThrough(long seq) throws IOException {
+        List<Long> files = listFiles(dir);
+        for (int i = 0; i + 1 < files.size(); i++) {
+            // a file ends right before the next one starts
+            if (files.get(i + 1) - 1 <= seq) {
+                Files.deleteIfExists(fileFor(dir, files.get(i)));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // Feeds the intact records continuing the sequence after afterSeq to replayer in order
+    // and returns the last seq applied. A torn or corrupt record (a crash mid-append) ends its
+    // file; it was never acknowledged, and appending resumes after the last good one. Records
+    // at or below the last seq applied are skipped, and the first one that does not follow it
+    // directly ends the replay, so nothing is applied twice or out of order.
+    public static long replay(Path dir, long afterSeq, Replayer replayer) throws IOException {
+        long last = afterSeq;
+        for (long firstSeq : listFiles(dir)) {
+            if (firstSeq > last + 1) {
+                break;  // a gap: nothing after it can be applied in order
+            }
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(fileFor(dir, firstSeq)), 64 * 1024);
+                 DataInputStream data = new DataInputStream(in)) {
+                CRC32 crc = new CRC32();
+                byte[] payload = new byte[256];
+                while (true) {
+                    int length;
+                    int checksum;
+                    try {
+                        length = data.readInt();
+                        checksum = data.readInt();
+                        if (length <= 0 || length > MAX_RECORD) {
+                            break;
+                        }
+                        if (payload.length < length) payload = new byte[length];
+                        data.readFully(payload, 0, length);
+                    } catch (EOFException e) {
+                        break;  // end of the file, or a torn tail
+                    }
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    ByteBuffer record = ByteBuffer.wrap(payload, 0, length);
+                    long seq = record.getLong();
+                    if (seq <= last) {
+                        continue;  // covered by the snapshot or already applied
+                    }
+                    if (seq != last + 1) {
+                        return last;
+                    }
+                    apply(record, replayer);
+                    last = seq;
+                }
+            }
+        }
+        return last;
+    }
+
+    private static void apply(ByteBuffer record, Replayer replayer) {
+        byte type = record.get();
+        if (type == SELL_ALL || type == RECEIVE_ALL) {
+            applyBatch(type, record, replayer);
+            return;
+        }
+        String sku = getString(record);
+        switch (type) {
+            case ADD -> {
+                String name = getString(record);
+                int qty = record.getInt();
+                int threshold = record.getInt();
+                int shelfLife = record.getInt();
+                LocalDate received = LocalDate.ofEpochDay(record.getLong());
+                replayer.add(new InventoryRecord(sku, name, qty, threshold, shelfLife, received));
+            }
+            case SELL -> replayer.sell(sku, record.getInt());
+            case RECEIVE -> {
+                int qty = record.getInt();
+                replayer.receive(sku, qty, LocalDate.ofEpochDay(record.getLong()));
+            }
+            default -> throw new IllegalStateException("Unknown WAL record type " + type);
+        }
+    }
+
+    private static void applyBatch(byte type, ByteBuffer record, Replayer replayer) {
+        int count = record.getInt();
+        String[] skus = new String[count];
+        int[] quantities = new int[count];
+        for (int i = 0; i < count; i++) {
+            skus[i] = getString(record);
+            quantities[i] = record.getInt();
+        }
+        LocalDate receivedOn = type == RECEIVE_ALL ? LocalDate.ofEpochDay(record.getLong()) : null;
+        for (int i = 0; i < count; i++) {
+            if (type == SELL_ALL) {
+                replayer.sell(skus[i], quantities[i]);
+            } else {
+                replayer.receive(skus[i], quantities[i], receivedOn);
+            }
+        }
+    }
+
+    // A record can outgrow the buffer, which is then replaced by a larger one
+    private void start(byte type, long bodyBytes) {
+        long needed = HEADER + bodyBytes;
+        if (needed > buffer.capacity()) {
+            buffer = ByteBuffer.allocateDirect((int) Math.min(needed, Integer.MAX_VALUE));
+        }
+        buffer.clear();
+        buffer.position(8);  // length and checksum are filled in by finish
+        buffer.putLong(lastSeq + 1);
+        buffer.put(type);
+    }
+
+    private void startBatch(byte type, Map<String, Integer> lines) {
+        long body = 4 + 8;
+        for (String sku : lines.keySet()) {
+            body += stringBytes(sku) + 4;
+        }
+        start(type, body);
+        buffer.putInt(lines.size());
+        for (Map.Entry<String, Integer> line : lines.entrySet()) {
+            putString(line.getKey());
+            buffer.putInt(line.getValue());
+        }
+    }
+
+    private long finish() {
+        if (broken != null) {
+            throw new UncheckedIOException("The write-ahead log has a torn record it could not remove", broken);
+        }
+        int end = buffer.position();
+        int length = end - 8;
+        if (length > MAX_RECORD) {
+            throw new IllegalArgumentException("Record of " + length + " bytes is larger than the write-ahead log allows");
+        }
+        crc.reset();
+        buffer.position(8);
+        buffer.limit(end);
+        crc.update(buffer);
+        buffer.clear();
+        buffer.putInt(0, length);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.limit(end);
+        long recordStart = -1;
+        try {
+            recordStart = channel.position();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            discardTornRecord(recordStart, e);
+            throw new UncheckedIOException(e);
+        }
+        return ++lastSeq;
+    }
+
+    // A write that failed part way leaves the start of a record behind. Replay stops at it,
+    // so anything appended after it would be lost: cut it off, or failing that start a new
+    // file at the same seq, which replay moves on to once the torn record ends this one.
+    private void discardTornRecord(long recordStart, IOException cause) {
+        if (recordStart >= 0) {
+            try {
+                channel.truncate(recordStart);
+                channel.position(recordStart);
+                return;
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+        try {
+            channel.close();
+            channel = openFile(lastSeq + 1);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+            broken = cause;
+        }
+    }
+
+    // Upper bound of a string's encoded size: a char is at most 3 UTF-8 bytes
+    private static long stringBytes(String value) {
+        return 4 + 3L * value.length();
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        String value = new String(record.array(), record.arrayOffset() + record.position(), length, StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return value;
+    }
+
+    // An existing file with this name can only hold records replay rejected, so it is overwritten
+    private FileChannel openFile(long firstSeq) throws IOException {
+        return FileChannel.open(fileFor(dir, firstSeq),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static Path fileFor(Path dir, long firstSeq) {
+        return dir.resolve(PREFIX + String.format("%020d", firstSeq));
+    }
+
+    // First seq of every WAL file in the directory, oldest first
+    private static List<Long> listFiles(Path dir) throws IOException {
+        List<Long> files = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*")) {
+            for (Path file : stream) {
+                try {
+                    files.add(Long.parseLong(file.getFileName().toString().substring(PREFIX.length())));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+}
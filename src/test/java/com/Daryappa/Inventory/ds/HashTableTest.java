@@ -0,0 +1,158 @@
+package com.Daryappa.Inventory.ds;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class HashTableTest {
+
+    // Equal hashCodes share a home slot, so these keys build probe clusters on purpose
+    private record Key(int hash, int id) {
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // First hashCode at or after from whose home slot in a table of this capacity is slot
+    private static int hashWithHome(int slot, int capacity, int from) {
+        for (int h = from; ; h++) {
+            if ((HashTable.mix(h) & (capacity - 1)) == slot) return h;
+        }
+    }
+
+    @Test
+    void removeFromTheMiddleOfAClusterKeepsTheRestReachable() {
+        HashTable<Key, Integer> table = new HashTable<>();
+        int capacity = table.getCapacity();
+        int h = hashWithHome(3, capacity, 0);
+        List<Key> cluster = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Key key = new Key(h, i);
+            cluster.add(key);
+            table.put(key, i);
+        }
+
+        table.remove(cluster.get(1));
+        table.remove(cluster.get(3));
+
+        assertEquals(3, table.size());
+        assertNull(table.get(cluster.get(1)));
+        assertNull(table.get(cluster.get(3)));
+        assertEquals(0, table.get(cluster.get(0)));
+        assertEquals(2, table.get(cluster.get(2)));
+        assertEquals(4, table.get(cluster.get(4)));
+    }
+
+    @Test
+    void removeShiftsBackOnlyEntriesWhoseHomeIsNotAfterTheGap() {
+        HashTable<Key, Integer> table = new HashTable<>();
+        int capacity = table.getCapacity();
+        // a: home 4, b: home 4 (lands in 5), c: home 5 (lands in 6), d: home 6 (lands in 7)
+        int h4 = hashWithHome(4, capacity, 0);
+        int h5 = hashWithHome(5, capacity, 0);
+        int h6 = hashWithHome(6, capacity, 0);
+        Key a = new Key(h4, 0);
+        Key b = new Key(h4, 1);
+        Key c = new Key(h5, 2);
+        Key d = new Key(h6, 3);
+        table.put(a, 0);
+        table.put(b, 1);
+        table.put(c, 2);
+        table.put(d, 3);
+
+        table.remove(a);
+
+        assertEquals(1, table.get(b));
+        assertEquals(2, table.get(c));
+        assertEquals(3, table.get(d));
+        table.remove(c);
+        assertEquals(1, table.get(b));
+        assertEquals(3, table.get(d));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    void removeInAClusterThatWrapsPastTheEndOfTheTable() {
+        HashTable<Key, Integer> table = new HashTable<>();
+        int capacity = table.getCapacity();
+        int last = hashWithHome(capacity - 1, capacity, 0);
+        int first = hashWithHome(0, capacity, 0);
+        // slots capacity-1, 0, 1 hold homes capacity-1, capacity-1, 0
+        Key x = new Key(last, 0);
+        Key y = new Key(last, 1);
+        Key z = new Key(first, 2);
+        table.put(x, 0);
+        table.put(y, 1);
+        table.put(z, 2);
+
+        table.remove(x);
+        assertEquals(1, table.get(y));
+        assertEquals(2, table.get(z));
+
+        table.remove(y);
+        assertEquals(2, table.get(z));
+        assertFalse(table.containsKey(x));
+        assertFalse(table.containsKey(y));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void randomPutsAndRemovesMatchHashMap() {
+        SplittableRandom random = new SplittableRandom(42);
+        HashTable<Key, Integer> table = new HashTable<>();
+        Map<Key, Integer> expected = new HashMap<>();
+        for (int step = 0; step < 200_000; step++) {
+            // few distinct hashes, so clusters are long and overlap
+            Key key = new Key(random.nextInt(64), random.nextInt(8));
+            if (random.nextInt(3) == 0) {
+                table.remove(key);
+                expected.remove(key);
+            } else {
+                table.put(key, step);
+                expected.put(key, step);
+            }
+            if (step % 1000 == 0) {
+                assertSameContents(expected, table);
+            }
+        }
+        assertSameContents(expected, table);
+    }
+
+    @Test
+    void removingEverythingLeavesAnEmptyTable() {
+        HashTable<String, Integer> table = new HashTable<>();
+        for (int i = 0; i < 10_000; i++) {
+            table.put("SKU" + i, i);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            table.remove("SKU" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i % 2 == 0 ? null : (Integer) i, table.get("SKU" + i));
+        }
+        for (int i = 1; i < 10_000; i += 2) {
+            table.remove("SKU" + i);
+        }
+        assertTrue(table.isEmpty());
+        assertTrue(table.keySet().isEmpty());
+    }
+
+    private static void assertSameContents(Map<Key, Integer> expected, HashTable<Key, Integer> table) {
+        assertEquals(expected.size(), table.size());
+        for (Map.Entry<Key, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), table.get(entry.getKey()));
+        }
+        assertEquals(expected.keySet(), new HashSet<>(table.keySet()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.Daryappa.Inventory.ds;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    // one level 0 span, one level 1 span, one level 2 span: past the last one is overflow
+    private static final long LEVEL1 = 64;
+    private static final long LEVEL2 = 64 * 64;
+    private static final long OVERFLOW = 64 * 64 * 64;
+
+    @Test
+    void keysOnEveryLevelComeDueOnTheirDayWhileAdvancingDayByDay() {
+        long[] days = {0, 1, 63, LEVEL1, LEVEL1 + 1, LEVEL2 - 1, LEVEL2, LEVEL2 + 1, LEVEL2 + LEVEL1,
+                OVERFLOW - 1, OVERFLOW, OVERFLOW + 1, OVERFLOW + LEVEL2 + 3, 2 * OVERFLOW + 7};
+        TimingWheel<Long> wheel = new TimingWheel<>(0);
+        for (long day : days) {
+            wheel.schedule(day, day);
+        }
+
+        long end = 2 * OVERFLOW + 8;
+        while (wheel.currentDay() < end) {
+            long today = wheel.currentDay();
+            List<Long> expected = new ArrayList<>();
+            for (long day : days) {
+                if (day <= today) expected.add(day);
+            }
+            assertEquals(expected, wheel.dueBy(today, Integer.MAX_VALUE), "due on day " + today);
+            wheel.advanceTo(today + 1);
+        }
+        assertEquals(days.length, wheel.size());
+        assertEquals(days.length, wheel.dueBy(end, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    void dueByLooksAheadAcrossLevelsWithoutAdvancing() {
+        TimingWheel<String> wheel = new TimingWheel<>(LEVEL2 - 3);
+        wheel.schedule("overflow", LEVEL2 - 3 + OVERFLOW + 10);
+        wheel.schedule("level2", LEVEL2 - 3 + LEVEL2 + 10);
+        wheel.schedule("level1", LEVEL2 - 3 + LEVEL1 + 10);
+        wheel.schedule("level0", LEVEL2);
+        wheel.schedule("expired", 5);
+
+        assertEquals(List.of("expired", "level0"), wheel.dueBy(LEVEL2, 10));
+        assertEquals(List.of("expired", "level0", "level1", "level2"), wheel.dueBy(LEVEL2 + OVERFLOW, 10));
+        assertEquals(List.of("expired", "level0", "level1", "level2", "overflow"), wheel.dueBy(Long.MAX_VALUE / 2, 10));
+        assertEquals(List.of("expired", "level0"), wheel.dueBy(Long.MAX_VALUE / 2, 2));
+    }
+
+    @Test
+    void rescheduleAndCancelUnlinkFromWhicheverListHoldsTheKey() {
+        TimingWheel<String> wheel = new TimingWheel<>(100);
+        wheel.schedule("a", 100 + OVERFLOW * 2);
+        wheel.schedule("b", 100 + OVERFLOW * 2);
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 10);
+        assertEquals(List.of("b", "a"), wheel.dueBy(200, 10));
+
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+        wheel.schedule("a", 100 + LEVEL2 + 1);
+        assertEquals(List.of(), wheel.dueBy(200, 10));
+        wheel.advanceTo(100 + LEVEL2 + 2);
+        assertEquals(List.of("a"), wheel.dueBy(wheel.currentDay(), 10));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void randomSchedulesCancelsAndAdvancesMatchAPlainMap() {
+        SplittableRandom random = new SplittableRandom(7);
+        // start just before a top-level boundary so the run cascades every level
+        long start = OVERFLOW - 100;
+        TimingWheel<Integer> wheel = new TimingWheel<>(start);
+        Map<Integer, Long> expected = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            long today = wheel.currentDay();
+            int key = random.nextInt(500);
+            switch (random.nextInt(10)) {
+                case 0, 1, 2, 3 -> {
+                    long day = today - 50 + random.nextLong(2 * OVERFLOW);
+                    wheel.schedule(key, day);
+                    expected.put(key, day);
+                }
+                case 4 -> assertEquals(expected.remove(key) != null, wheel.cancel(key));
+                case 5 -> wheel.advanceTo(today + random.nextInt(300));
+                default -> {
+                    long lastDay = today + random.nextLong(OVERFLOW);
+                    int limit = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(20);
+                    assertDue(expected, wheel, lastDay, limit);
+                }
+            }
+        }
+        assertEquals(expected.size(), wheel.size());
+        assertDue(expected, wheel, Long.MAX_VALUE / 2, Integer.MAX_VALUE);
+    }
+
+    // dueBy must return the earliest days in order; ties may come in any order
+    private static void assertDue(Map<Integer, Long> expected, TimingWheel<Integer> wheel, long lastDay, int limit) {
+        List<Map.Entry<Integer, Long>> due = new ArrayList<>();
+        for (Map.Entry<Integer, Long> entry : expected.entrySet()) {
+            if (entry.getValue() <= lastDay) due.add(entry);
+        }
+        due.sort(Comparator.comparingLong(Map.Entry::getValue));
+
+        List<Integer> actual = wheel.dueBy(lastDay, limit);
+        int count = Math.min(limit, due.size());
+        assertEquals(count, actual.size(), "number due by " + lastDay);
+        for (int i = 0; i < count; i++) {
+            assertEquals(due.get(i).getValue(), expected.get(actual.get(i)), "day of result " + i);
+        }
+        if (count == due.size()) {
+            HashSet<Integer> keys = new HashSet<>();
+            for (Map.Entry<Integer, Long> entry : due) keys.add(entry.getKey());
+            assertEquals(keys, new HashSet<>(actual));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.Daryappa.Inventory.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LogIndexTest {
+    private static final String HEADER = "Date,Time,Action,SKU,Quantity,ItemName\n";
+
+    @TempDir
+    Path dir;
+
+    // Every line has the same length, so a stale index still lands on line boundaries
+    private static String line(String action, String sku) {
+        return "01-03-2024,10:00:00," + action + "," + sku + ",1,Item\n";
+    }
+
+    // SKUs of the lines the index returns for this action, read back from the log
+    private static List<String> skusFor(Path log, String action) throws IOException {
+        LogIndex.Matches matches = LogIndex.of(log).find(LogIndex.ACTION, LogIndex.actionKey(action));
+        byte[] bytes = Files.readAllBytes(log);
+        List<String> skus = new ArrayList<>();
+        for (int i = 0; i < matches.count; i++) {
+            String text = new String(bytes, (int) matches.offsets[i], matches.lengths[i], StandardCharsets.UTF_8);
+            skus.add(text.split(",")[3]);
+        }
+        return skus;
+    }
+
+    @Test
+    void aLogRewrittenInPlaceWithMoreLinesIsIndexedAgain() throws IOException {
+        Path log = dir.resolve("log.csv");
+        Files.writeString(log, HEADER + line("SOLD", "A1") + line("RECV", "B1"));
+        assertEquals(List.of("A1"), skusFor(log, "SOLD"));
+
+        // same file, larger, and the old last record still ends on a newline
+        Files.writeString(log, HEADER + line("RECV", "X1") + line("SOLD", "C1") + line("SOLD", "D1"));
+        assertEquals(List.of("C1", "D1"), skusFor(log, "SOLD"));
+        LogIndex.forget(log);
+    }
+
+    @Test
+    void aLogReplacedByAnotherFileOfTheSameSizeIsIndexedAgain() throws IOException {
+        StringBuilder original = new StringBuilder(HEADER);
+        for (int i = 0; i < 200; i++) {
+            original.append(line("RECV", String.format("S%d", 10 + i % 90)));
+        }
+        // differs only past the part of the log the header CRC covers
+        String replacement = original.substring(0, original.length() - line("RECV", "S99").length())
+                + line("SOLD", "Z99");
+        Path log = dir.resolve("log.csv");
+        Files.writeString(log, original);
+        assertEquals(List.of(), skusFor(log, "SOLD"));
+
+        Path next = dir.resolve("next.csv");
+        Files.writeString(next, replacement);
+        Files.move(next, log, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        assertEquals(List.of("Z99"), skusFor(log, "SOLD"));
+        LogIndex.forget(log);
+    }
+
+    @Test
+    void appendsAfterTheIndexWasBuiltAreCaughtUp() throws IOException {
+        Path log = dir.resolve("log.csv");
+        StringBuilder content = new StringBuilder(HEADER);
+        List<String> sold = new ArrayList<>();
+        Files.writeString(log, content);
+        // grows the log past the CRC prefix over several syncs
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 20; i++) {
+                String sku = String.format("K%d", 10 + (round * 20 + i) % 90);
+                boolean isSold = i % 3 == 0;
+                content.append(line(isSold ? "SOLD" : "RECV", sku));
+                if (isSold) sold.add(sku);
+            }
+            Files.writeString(log, content);
+            assertEquals(sold, skusFor(log, "SOLD"));
+        }
+        LogIndex.forget(log);
+    }
+}
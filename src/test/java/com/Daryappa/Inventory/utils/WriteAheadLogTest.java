@@ -0,0 +1,235 @@
+package com.Daryappa.Inventory.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.Daryappa.Inventory.model.InventoryRecord;
+
+class WriteAheadLogTest {
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @TempDir
+    Path dir;
+
+    // Replayed records as readable strings, in the order they were applied
+    private static final class Recorder implements WriteAheadLog.Replayer {
+        final List<String> applied = new ArrayList<>();
+
+        @Override
+        public void add(InventoryRecord record) {
+            applied.add("add " + record.getSku() + " " + record.getName() + " " + record.getQuantity()
+                    + " " + record.getReorderThreshold() + " " + record.getShelfLifeDays() + " " + record.getReceivedDate());
+        }
+
+        @Override
+        public void sell(String sku, int qty) {
+            applied.add("sell " + sku + " " + qty);
+        }
+
+        @Override
+        public void receive(String sku, int qty, LocalDate receivedOn) {
+            applied.add("receive " + sku + " " + qty + " " + receivedOn);
+        }
+    }
+
+    private Recorder replay(long afterSeq, long expectedLast) throws IOException {
+        Recorder recorder = new Recorder();
+        assertEquals(expectedLast, WriteAheadLog.replay(dir, afterSeq, recorder));
+        return recorder;
+    }
+
+    // Writes add A, sell A 2, receive A 5 as seqs 1-3
+    private void writeThree() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 0, false)) {
+            assertEquals(1, wal.appendAdd(new InventoryRecord("A", "Apples", 10, 3, 7, DAY)));
+            assertEquals(2, wal.appendSell("A", 2));
+            assertEquals(3, wal.appendReceive("A", 5, DAY.plusDays(1)));
+        }
+    }
+
+    private Path onlyFile() throws IOException {
+        try (var files = Files.list(dir)) {
+            List<Path> all = files.toList();
+            assertEquals(1, all.size());
+            return all.get(0);
+        }
+    }
+
+    // Byte offset where the record with this 1-based index starts
+    private static int recordStart(byte[] file, int index) {
+        int offset = 0;
+        for (int i = 1; i < index; i++) {
+            offset += 8 + ByteBuffer.wrap(file, offset, 4).getInt();
+        }
+        return offset;
+    }
+
+    @Test
+    void replaysEveryRecordTypeInOrder() throws IOException {
+        Map<String, Integer> order = new LinkedHashMap<>();
+        order.put("A", 1);
+        order.put("B", 4);
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 0, true)) {
+            wal.appendAdd(new InventoryRecord("A", "Apples, red", 10, 3, 7, DAY));
+            wal.appendAdd(new InventoryRecord("B", "Bananas", 20, 5, 4, DAY));
+            wal.appendSell("A", 2);
+            wal.appendReceive("B", 6, DAY.plusDays(2));
+            wal.appendSellAll(order);
+            long last = wal.appendReceiveAll(order, DAY.plusDays(3));
+            wal.sync(last);
+            assertEquals(6, wal.lastSeq());
+        }
+
+        assertEquals(List.of(
+                "add A Apples, red 10 3 7 2024-03-01",
+                "add B Bananas 20 5 4 2024-03-01",
+                "sell A 2",
+                "receive B 6 2024-03-03",
+                "sell A 1",
+                "sell B 4",
+                "receive A 1 2024-03-04",
+                "receive B 4 2024-03-04"), replay(0, 6).applied);
+    }
+
+    @Test
+    void skipsRecordsAlreadyCoveredBySnapshot() throws IOException {
+        writeThree();
+        assertEquals(List.of("receive A 5 2024-03-02"), replay(2, 3).applied);
+        assertEquals(List.of(), replay(3, 3).applied);
+    }
+
+    @Test
+    void stopsAtARecordWithABadChecksum() throws IOException {
+        writeThree();
+        Path file = onlyFile();
+        byte[] bytes = Files.readAllBytes(file);
+        // flip a byte inside the payload of record 2
+        bytes[recordStart(bytes, 2) + 8 + 9] ^= 0x40;
+        Files.write(file, bytes);
+
+        assertEquals(List.of("add A Apples 10 3 7 2024-03-01"), replay(0, 1).applied);
+    }
+
+    @Test
+    void stopsAtATornTailAndAppendingResumesAfterIt() throws IOException {
+        writeThree();
+        Path file = onlyFile();
+        byte[] bytes = Files.readAllBytes(file);
+        // a crash in the middle of writing record 3
+        int torn = recordStart(bytes, 3) + 6;
+        Files.write(file, Arrays.copyOf(bytes, torn));
+
+        assertEquals(2, replay(0, 2).applied.size());
+
+        // restart: recovery found seq 2, so the new record is seq 3 again
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 2, false)) {
+            assertEquals(3, wal.appendSell("A", 1));
+            assertEquals(4, wal.appendSell("A", 1));
+        }
+        assertEquals(List.of(
+                "add A Apples 10 3 7 2024-03-01",
+                "sell A 2",
+                "sell A 1",
+                "sell A 1"), replay(0, 4).applied);
+    }
+
+    @Test
+    void stopsAtAGapBetweenFiles() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 0, false)) {
+            wal.appendSell("A", 1);
+            wal.roll();
+            wal.appendSell("A", 2);
+            wal.roll();
+            wal.appendSell("A", 3);
+        }
+        Files.delete(dir.resolve(String.format("inventory.wal.%020d", 2)));
+
+        assertEquals(List.of("sell A 1"), replay(0, 1).applied);
+    }
+
+    @Test
+    void filesPastACorruptRecordAreNotReplayedAfterMoreAppends() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 0, false)) {
+            for (int i = 1; i <= 5; i++) wal.appendSell("A", i);
+            wal.roll();
+            for (int i = 6; i <= 10; i++) wal.appendSell("OLD", i);
+        }
+        Path first = dir.resolve(String.format("inventory.wal.%020d", 1));
+        byte[] bytes = Files.readAllBytes(first);
+        bytes[recordStart(bytes, 3) + 8 + 9] ^= 0x40;
+        Files.write(first, bytes);
+
+        // recovery stops at seq 2; the restarted log writes 3-12 over the lost range and beyond
+        assertEquals(2, replay(0, 2).applied.size());
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 2, false)) {
+            assertFalse(Files.exists(dir.resolve(String.format("inventory.wal.%020d", 6))));
+            for (int i = 3; i <= 12; i++) wal.appendSell("NEW", i);
+        }
+
+        List<String> expected = new ArrayList<>(List.of("sell A 1", "sell A 2"));
+        for (int i = 3; i <= 12; i++) expected.add("sell NEW " + i);
+        assertEquals(expected, replay(0, 12).applied);
+    }
+
+    @Test
+    void stopsAtARecordThatDoesNotContinueTheSequence() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 0, false)) {
+            wal.appendSell("A", 1);
+            wal.appendSell("A", 2);
+        }
+        // a stray file named as if it continued at 3 but holding seqs 5 and up
+        Path stray = dir.resolve("stray");
+        try (WriteAheadLog wal = new WriteAheadLog(stray, 4, false)) {
+            wal.appendSell("B", 5);
+        }
+        Files.move(stray.resolve(String.format("inventory.wal.%020d", 5)),
+                dir.resolve(String.format("inventory.wal.%020d", 3)));
+
+        assertEquals(List.of("sell A 1", "sell A 2"), replay(0, 2).applied);
+    }
+
+    @Test
+    void deleteThroughKeepsTheFilesItDoesNotFullyCover() throws IOException {
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 0, false)) {
+            wal.appendSell("A", 1);
+            wal.appendSell("A", 2);
+            long covered = wal.roll();
+            wal.appendSell("A", 3);
+            wal.deleteThrough(covered);
+            assertFalse(Files.exists(dir.resolve(String.format("inventory.wal.%020d", 1))));
+            assertTrue(Files.exists(dir.resolve(String.format("inventory.wal.%020d", 3))));
+        }
+        assertEquals(List.of("sell A 3"), replay(2, 3).applied);
+    }
+
+    @Test
+    void recordsLargerThanTheInitialBufferRoundTrip() throws IOException {
+        String sku = "S".repeat(70_000);
+        String name = "é".repeat(100_000);
+        try (WriteAheadLog wal = new WriteAheadLog(dir, 0, false)) {
+            wal.appendAdd(new InventoryRecord(sku, name, 1, 0, 1, DAY));
+            wal.appendSell(sku, 1);
+            wal.appendReceive(sku, 2, DAY);
+        }
+
+        List<String> applied = replay(0, 3).applied;
+        assertEquals("add " + sku + " " + name + " 1 0 1 2024-03-01", applied.get(0));
+        assertEquals("sell " + sku + " 1", applied.get(1));
+        assertEquals("receive " + sku + " 2 2024-03-01", applied.get(2));
+    }
+}